@@ -1,31 +1,44 @@
 import external.GraphicEngine;
 import external.SuperConsoleEngine;
-import framework.core.GameBoard;
+import framework.core.BoardSnapshot;
+import framework.core.GameRegistry;
 import framework.core.Player;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.creational.singleton.GameManager;
+import framework.patterns.creational.singleton.SessionHandle;
 import framework.patterns.structural.adapter.GraphicEngineImp;
 import framework.patterns.structural.adapter.IGraphicEngineAdapter;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.util.concurrent.CompletionException;
 
 public class App {
     public static void main(String[] args) {
         String gameId = "Jungle";
         String playerId = "JunglePlayer1";
 
+        // Sem META-INF no classpath o registro vem vazio
+        if (!GameRegistry.ids().contains(gameId)) {
+            GameRegistry.register(gameId, new JungleAbstractFactory());
+        }
+
         GameManager manager = GameManager.getInstance();
         GraphicEngine graphicEngine = new SuperConsoleEngine();
         IGraphicEngineAdapter graphicEngineAdapter = new GraphicEngineImp(graphicEngine);
-        manager.start(gameId, playerId, graphicEngineAdapter);
-        GameBoard board = manager.board();
-        Player current = manager.currentPlayer();
+        SessionHandle game = manager.start(gameId, playerId, graphicEngineAdapter);
+        BoardSnapshot board = manager.view(game.id());
+        Player current = board.currentPlayer();
         System.out.println("Jogo iniciado com sucesso!");
         System.out.println("Jogador atual: " + current.getId());
         System.out.println("Tamanho do tabuleiro: " + board.getWidth() + "x" + board.getHeight());
         try {
             Position from = new Position(0, 6);
             Position to = new Position(0, 5);
-            manager.move(from, to);
+            manager.move(game.id(), from, to).join();
             System.out.println("Movimento realizado com sucesso.");
+            manager.awaitRender(game.id(), 1000);
+        } catch (CompletionException e) {
+            System.err.println("Erro ao mover peça: " + e.getCause().getMessage());
         } catch (Exception e) {
             System.err.println("Erro ao mover peça: " + e.getMessage());
         }
@@ -0,0 +1,204 @@
+package external;
+
+import framework.core.cellType.CellType;
+import framework.core.Overlay;
+import framework.core.OverlayKind;
+import framework.core.PieceType;
+import framework.core.Player;
+
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/*
+    Tela do modo com buffer do SuperConsoleEngine: guarda o que está desenhado
+    em cada casa (fundo do terreno e peça, já como sequências ANSI) e monta o
+    quadro num StringBuilder reaproveitado, escrito no terminal de uma vez.
+
+    Destaques (Overlay) trocam o fundo da casa pela cor do tipo de destaque.
+
+    Só as casas alteradas desde o último quadro são reescritas, posicionando o
+    cursor; o quadro inteiro só é refeito depois de um novo tabuleiro. Com
+    limite de quadros por segundo, as alterações que chegam dentro do mesmo
+    intervalo viram um único desenho, feito por uma thread própria.
+ */
+final class ConsoleFrame {
+    private static final String RESET = "\033[0m";
+    private static final String REVERSE = "\033[7m";
+    private static final String EMPTY = "   ";
+    private static final String[] BACKGROUNDS = {"\033[42m", "\033[41m", "\033[43m", "\033[44m", "\033[45m", "\033[46m", "\033[47m"};
+    // Fundo por OverlayKind, no lugar do fundo do terreno
+    private static final String[] OVERLAYS = {"\033[102m", "\033[101m", "\033[103m", "\033[105m"};
+    private static final String[] FOREGROUNDS = {"\033[1;97m", "\033[1;30m", "\033[1;93m", "\033[1;96m"};
+
+    private final PrintStream out;
+    private final long frameNanos;
+    private final StringBuilder frame = new StringBuilder(4096);
+    private byte[] bytes = new byte[4096];
+
+    // Sequências ANSI montadas uma vez por tipo de casa, tipo de peça e dono
+    private final Map<CellType, String> cellGlyphs = new HashMap<>();
+    private final Map<PieceType, String[]> pieceGlyphs = new HashMap<>();
+    private final Map<String, Integer> owners = new HashMap<>();
+
+    private int width, height;
+    private String[] background = new String[0];
+    private String[] occupant = new String[0];
+    private boolean[] dirty = new boolean[0];
+    private OverlayKind[] overlay = new OverlayKind[0];
+    private int highlighted = -1;
+    private String player = "";
+    private boolean full, statusDirty, pending;
+    private long lastDraw, frames;
+    private ScheduledExecutorService scheduler;
+
+    ConsoleFrame(PrintStream out, int maxFps) {
+        this.out = out;
+        this.frameNanos = maxFps > 0 ? 1_000_000_000L / maxFps : 0;
+    }
+
+    synchronized void resize(int width, int height) {
+        if (width != this.width || height != this.height) {
+            this.width = width;
+            this.height = height;
+            background = new String[width * height];
+            occupant = new String[width * height];
+            dirty = new boolean[width * height];
+            overlay = new OverlayKind[width * height];
+            highlighted = -1;
+        }
+        full = true;
+    }
+
+    synchronized int square(int x, int y) {
+        return x < 0 || y < 0 || x >= width || y >= height ? -1 : x + y * width;
+    }
+
+    synchronized void terrain(int square, CellType type) {
+        background[square] = cellGlyphs.computeIfAbsent(type, t -> BACKGROUNDS[cellGlyphs.size() % BACKGROUNDS.length]);
+        dirty[square] = true;
+    }
+
+    synchronized void clearPieces() {
+        for (int square = 0; square < occupant.length; square++) {
+            occupant[square] = EMPTY;
+            dirty[square] = true;
+        }
+    }
+
+    // owner null ou type null deixam a casa vazia
+    synchronized void piece(int square, PieceType type, Player owner) {
+        occupant[square] = type == null ? EMPTY : glyph(type, owner);
+        dirty[square] = true;
+    }
+
+    synchronized void highlight(int square) {
+        if (highlighted >= 0) dirty[highlighted] = true;
+        highlighted = square;
+        if (square >= 0) dirty[square] = true;
+    }
+
+    // Só as casas cujo destaque mudou são redesenhadas
+    synchronized void overlay(Overlay next) {
+        boolean matches = next.getCellCount() == overlay.length;
+        for (int square = 0; square < overlay.length; square++) {
+            OverlayKind kind = matches ? next.kindAt(square) : null;
+            if (kind != overlay[square]) {
+                overlay[square] = kind;
+                dirty[square] = true;
+            }
+        }
+    }
+
+    synchronized void player(String id) {
+        player = id;
+        statusDirty = true;
+    }
+
+    // Agenda o próximo quadro; sem limite de FPS desenha na hora
+    synchronized void changed() {
+        if (frameNanos == 0) {
+            draw();
+            return;
+        }
+        if (pending) return;
+        pending = true;
+        if (scheduler == null) {
+            scheduler = Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().daemon().name("console-frame").factory());
+        }
+        long delay = Math.max(0, lastDraw + frameNanos - System.nanoTime());
+        scheduler.schedule(this::drawPending, delay, TimeUnit.NANOSECONDS);
+    }
+
+    // Desenha já o quadro que estava esperando o intervalo
+    synchronized void flush() {
+        if (pending) draw();
+    }
+
+    synchronized long frames() {
+        return frames;
+    }
+
+    private synchronized void drawPending() {
+        if (pending) draw();
+    }
+
+    private void draw() {
+        pending = false;
+        frame.setLength(0);
+        if (full) frame.append("\033[2J");
+        for (int square = 0; square < dirty.length; square++) {
+            if (!full && !dirty[square]) continue;
+            dirty[square] = false;
+            frame.append("\033[").append(square / width + 1).append(';').append(square % width * 3 + 1).append('H')
+                    .append(overlay[square] != null ? OVERLAYS[overlay[square].ordinal()]
+                            : background[square] == null ? RESET : background[square]);
+            if (square == highlighted) frame.append(REVERSE);
+            frame.append(occupant[square] == null ? EMPTY : occupant[square]).append(RESET);
+        }
+        if (full || statusDirty) {
+            frame.append("\033[").append(height + 2).append(";1H\033[2KVez: ").append(player);
+            statusDirty = false;
+        }
+        frame.append("\033[").append(height + 3).append(";1H");
+        full = false;
+        write();
+        lastDraw = System.nanoTime();
+        frames++;
+    }
+
+    // Quase tudo é ASCII; só um quadro com outro caractere passa pelo codificador
+    private void write() {
+        int length = frame.length();
+        if (bytes.length < length) {
+            bytes = new byte[Math.max(length, bytes.length * 2)];
+        }
+        for (int i = 0; i < length; i++) {
+            char c = frame.charAt(i);
+            if (c >= 0x80) {
+                byte[] encoded = frame.toString().getBytes(StandardCharsets.UTF_8);
+                out.write(encoded, 0, encoded.length);
+                out.flush();
+                return;
+            }
+            bytes[i] = (byte) c;
+        }
+        out.write(bytes, 0, length);
+        out.flush();
+    }
+
+    private String glyph(PieceType type, Player owner) {
+        String[] byOwner = pieceGlyphs.computeIfAbsent(type, t -> new String[FOREGROUNDS.length]);
+        int index = owner == null ? 0 : owners.computeIfAbsent(owner.getId(), id -> owners.size()) % FOREGROUNDS.length;
+        if (byOwner[index] == null) {
+            String name = type.getName();
+            String abbreviation = name.length() >= 2 ? name.charAt(0) + name.substring(1, 2).toLowerCase() : name + " ";
+            byOwner[index] = FOREGROUNDS[index] + " " + abbreviation;
+        }
+        return byOwner[index];
+    }
+}
@@ -1,6 +1,8 @@
 package external;
 
+import framework.core.BoardSnapshot;
 import framework.core.GameBoard;
+import framework.core.Overlay;
 import framework.core.Player;
 import framework.patterns.structural.flyweight.GamePiece;
 
@@ -17,4 +19,14 @@ public interface GraphicEngine {
     void renderPlayers(List<Player> players);
     void renderPieces(List<GamePiece> pieces);
     void highlightPosition(int x, int y);
+
+    // Desenho completo a partir do snapshot, sem ler o tabuleiro que a partida está alterando
+    void renderBoard(BoardSnapshot board);
+    void renderPieces(BoardSnapshot board);
+
+    // Redesenha só as casas indicadas (cells[0..count)), com o que o snapshot tem nelas
+    void renderCells(BoardSnapshot board, int[] cells, int count);
+
+    // Substitui os destaques em exibição por todos os do overlay, numa chamada só
+    void renderOverlay(Overlay overlay);
 }
@@ -1,45 +1,206 @@
 package external;
 
+import framework.core.BoardSnapshot;
 import framework.core.GameBoard;
+import framework.core.Overlay;
+import framework.core.OverlayKind;
 import framework.core.Player;
-import framework.patterns.creational.prototype.Position;
 import framework.patterns.structural.flyweight.GamePiece;
 
+import java.io.PrintStream;
 import java.util.List;
 
+/*
+    Sem argumentos escreve texto corrido, um bloco por chamada. Com maxFps
+    passa ao modo com buffer: desenha o tabuleiro em cores ANSI, atualizado no
+    lugar, e junta as chamadas de um mesmo intervalo num único quadro (maxFps
+    <= 0 desenha a cada chamada, ainda com uma só escrita por quadro).
+ */
 public class SuperConsoleEngine implements GraphicEngine {
+    private final PrintStream out;
+    private final ConsoleFrame screen;
+
+    public SuperConsoleEngine() {
+        this.out = System.out;
+        this.screen = null;
+    }
+
+    public SuperConsoleEngine(int maxFps) {
+        this(System.out, maxFps);
+    }
+
+    public SuperConsoleEngine(PrintStream out, int maxFps) {
+        this.out = out;
+        this.screen = new ConsoleFrame(out, maxFps);
+    }
+
     @Override
     public void renderBoard(GameBoard board) {
-        System.out.println("=== Tabuleiro ===");
+        if (screen != null) {
+            screen.resize(board.getWidth(), board.getHeight());
+            for (int square = 0; square < board.getCellCount(); square++) {
+                screen.terrain(square, board.getCell(square).getType());
+            }
+            screen.clearPieces();
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder(32 + board.getCellCount() * 3 + board.getHeight());
+        text.append("=== Tabuleiro ===").append(System.lineSeparator());
         for (int y = 0; y < board.getHeight(); y++) {
             for (int x = 0; x < board.getWidth(); x++) {
-                System.out.print("[" + board.getCell(new Position(x, y)).getType().toString().charAt(0) + "]");
+                text.append('[').append(board.getCell(board.cellIndex(x, y)).getType().toString().charAt(0)).append(']');
+            }
+            text.append(System.lineSeparator());
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void renderBoard(BoardSnapshot board) {
+        if (screen != null) {
+            screen.resize(board.getWidth(), board.getHeight());
+            for (int square = 0; square < board.getCellCount(); square++) {
+                screen.terrain(square, board.cellType(square));
             }
-            System.out.println();
+            screen.clearPieces();
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder(32 + board.getCellCount() * 3 + board.getHeight());
+        text.append("=== Tabuleiro ===").append(System.lineSeparator());
+        for (int square = 0; square < board.getCellCount(); square++) {
+            text.append('[').append(board.cellType(square).toString().charAt(0)).append(']');
+            if ((square + 1) % board.getWidth() == 0) {
+                text.append(System.lineSeparator());
+            }
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void renderPieces(BoardSnapshot board) {
+        if (screen != null) {
+            for (int slot = 0; slot < board.pieceCount(); slot++) {
+                if (board.square(slot) >= 0) {
+                    screen.piece(board.square(slot), board.type(slot), board.owner(slot));
+                }
+            }
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder("=== Peças ===").append(System.lineSeparator());
+        for (int slot = 0; slot < board.pieceCount(); slot++) {
+            int square = board.square(slot);
+            if (square < 0) continue;
+            text.append("Tipo: ").append(board.type(slot).getName())
+                    .append(", Pos: (").append(square % board.getWidth()).append(',').append(square / board.getWidth()).append(')')
+                    .append(System.lineSeparator());
         }
+        out.print(text);
     }
 
     @Override
     public void renderPlayers(List<Player> players) {
-        System.out.println("=== Jogadores ===");
+        if (screen != null) {
+            screen.player(players.isEmpty() ? "" : players.get(0).getId());
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder("=== Jogadores ===").append(System.lineSeparator());
         for (Player player : players) {
-            System.out.println(player.getId());
+            text.append(player.getId()).append(System.lineSeparator());
         }
+        out.print(text);
     }
 
     @Override
     public void renderPieces(List<GamePiece> pieces) {
-        System.out.println("=== Peças ===");
+        if (screen != null) {
+            for (GamePiece piece : pieces) {
+                GameBoard board = piece.getBoard();
+                int square = board == null ? -1 : board.cellIndex(piece.getPosition());
+                if (square >= 0) {
+                    screen.piece(square, piece.getProps().type(), piece.getOwner());
+                }
+            }
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder("=== Peças ===").append(System.lineSeparator());
         for (GamePiece piece : pieces) {
-            System.out.printf("Tipo: %s, Pos: (%d,%d)%n",
-                    piece.getProps().type().getName(),
-                    piece.getPosition().x(),
-                    piece.getPosition().y());
+            text.append("Tipo: ").append(piece.getProps().type().getName())
+                    .append(", Pos: (").append(piece.getPosition().x()).append(',').append(piece.getPosition().y()).append(')')
+                    .append(System.lineSeparator());
         }
+        out.print(text);
     }
 
     @Override
     public void highlightPosition(int x, int y) {
-        System.out.printf("Posição destacada: (%d,%d)%n", x, y);
+        if (screen != null) {
+            screen.highlight(screen.square(x, y));
+            screen.changed();
+            return;
+        }
+        out.printf("Posição destacada: (%d,%d)%n", x, y);
+    }
+
+    @Override
+    public void renderCells(BoardSnapshot board, int[] cells, int count) {
+        if (screen != null) {
+            for (int i = 0; i < count; i++) {
+                int slot = board.slotAt(cells[i]);
+                screen.piece(cells[i], slot < 0 ? null : board.type(slot), slot < 0 ? null : board.owner(slot));
+            }
+            screen.changed();
+            return;
+        }
+        StringBuilder text = new StringBuilder(32 + count * 40);
+        text.append("=== Casas alteradas ===").append(System.lineSeparator());
+        for (int i = 0; i < count; i++) {
+            int square = cells[i];
+            int slot = board.slotAt(square);
+            text.append('(').append(square % board.getWidth()).append(',').append(square / board.getWidth()).append(") [")
+                    .append(board.cellType(square).toString().charAt(0)).append("] ");
+            if (slot < 0) {
+                text.append('-');
+            } else {
+                text.append(board.type(slot).getName()).append(" (").append(board.owner(slot).getId()).append(')');
+            }
+            text.append(System.lineSeparator());
+        }
+        out.print(text);
+    }
+
+    @Override
+    public void renderOverlay(Overlay overlay) {
+        if (screen != null) {
+            screen.overlay(overlay);
+            screen.changed();
+            return;
+        }
+        // No texto corrido não há destaque em exibição para apagar
+        if (overlay.getCellCount() == 0) return;
+        StringBuilder text = new StringBuilder("=== Destaques ===").append(System.lineSeparator());
+        for (OverlayKind kind : OverlayKind.values()) {
+            if (overlay.count(kind) == 0) continue;
+            text.append(kind).append(':');
+            for (int square = overlay.next(kind, 0); square >= 0; square = overlay.next(kind, square + 1)) {
+                text.append(" (").append(square % overlay.getWidth()).append(',').append(square / overlay.getWidth()).append(')');
+            }
+            text.append(System.lineSeparator());
+        }
+        out.print(text);
+    }
+
+    // Modo com buffer: desenha agora o quadro que esperava o intervalo (por exemplo, antes de encerrar)
+    public void flush() {
+        if (screen != null) screen.flush();
+    }
+
+    // Quadros efetivamente escritos no modo com buffer
+    public long getFrameCount() {
+        return screen == null ? 0 : screen.frames();
     }
 }
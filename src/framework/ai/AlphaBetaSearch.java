@@ -0,0 +1,294 @@
+package framework.ai;
+
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.patterns.structural.facade.GameSession;
+
+import java.util.Arrays;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    Busca alfa-beta (negamax) com aprofundamento iterativo sobre uma GameSession.
+    A sessão recebida é copiada uma vez no início (GameSession.clone) e nunca é
+    alterada; dentro da busca os lances são feitos e desfeitos na cópia com
+    makeMove/unmakeMove, sem memento nem novas posições. A ordenação usa o lance
+    da tabela de transposição, capturas, killers e histórico.
+ */
+public class AlphaBetaSearch {
+    public static final int MAX_PLY = 64;
+
+    private static final int INFINITY = Evaluation.WIN + 1;
+    private static final int MATE_BOUND = Evaluation.WIN - MAX_PLY;
+    private static final int NOISE = 256;
+
+    private final Evaluation evaluation;
+    private final TranspositionTable table;
+    private final MoveBuffer[] buffers = new MoveBuffer[MAX_PLY];
+    private final int[][] ordered = new int[MAX_PLY][];
+    private final int[][] orderScores = new int[MAX_PLY][];
+    private final int[][] killers = new int[MAX_PLY][2];
+    private int[] history = new int[0];
+
+    private GameSession session;
+    private GameBoard board;
+    private long nodes;
+    private long deadline;
+    private AtomicBoolean stop;
+    private boolean aborted;
+    private int rootMove;
+    private int startDepth = 1;
+    private SplittableRandom noise;
+
+    public AlphaBetaSearch(Evaluation evaluation) {
+        this(evaluation, new TranspositionTable(20));
+    }
+
+    public AlphaBetaSearch(Evaluation evaluation, TranspositionTable table) {
+        this.evaluation = evaluation;
+        this.table = table;
+        for (int ply = 0; ply < MAX_PLY; ply++) {
+            buffers[ply] = new MoveBuffer();
+            ordered[ply] = new int[64];
+            orderScores[ply] = new int[64];
+        }
+    }
+
+    // timeLimitMillis <= 0 busca até maxDepth sem limite de tempo
+    public SearchResult search(GameSession session, int maxDepth, long timeLimitMillis) {
+        return search(session, maxDepth, timeLimitMillis, new AtomicBoolean());
+    }
+
+    // stop permite que outra thread interrompa a busca (o último nível completo é mantido)
+    public SearchResult search(GameSession session, int maxDepth, long timeLimitMillis, AtomicBoolean stop) {
+        return searchCopy(session.clone(), maxDepth, timeLimitMillis, stop);
+    }
+
+    // Ajudante do lazy SMP: os ímpares começam um nível mais fundo e todos embaralham um pouco os lances quietos
+    void diversify(int helper) {
+        startDepth = 1 + (helper & 1);
+        noise = helper == 0 ? null : new SplittableRandom(helper);
+    }
+
+    // Busca direto em uma cópia que já é só desta busca
+    SearchResult searchCopy(GameSession copy, int maxDepth, long timeLimitMillis, AtomicBoolean stop) {
+        this.session = copy;
+        this.stop = stop;
+        this.board = copy.board();
+        int cells = board.getCellCount();
+        // Killers e histórico valem para a posição da busca anterior: cada busca começa do zero
+        if (history.length != cells * cells) {
+            history = new int[cells * cells];
+        } else {
+            Arrays.fill(history, 0);
+        }
+        for (int[] killer : killers) {
+            Arrays.fill(killer, 0);
+        }
+
+        long start = System.nanoTime();
+        deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        nodes = 0;
+        aborted = false;
+
+        int bestMove = -1;
+        int bestScore = 0;
+        int completed = 0;
+        for (int depth = Math.min(startDepth, maxDepth); depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            rootMove = -1;
+            int score = search(depth, 0, -INFINITY, INFINITY);
+            if (aborted) break;
+            bestMove = rootMove;
+            bestScore = score;
+            completed = depth;
+            if (rootMove < 0 || Math.abs(score) >= MATE_BOUND) break;
+        }
+
+        if (bestMove < 0 && rootMove >= 0) {
+            bestMove = rootMove;
+        }
+        int from = bestMove < 0 ? -1 : bestMove & 0xFFFF;
+        int to = bestMove < 0 ? -1 : bestMove >>> 16;
+        return new SearchResult(from, to, bestScore, completed, nodes, System.nanoTime() - start);
+    }
+
+    public long getNodes() {
+        return nodes;
+    }
+
+    private int search(int depth, int ply, int alpha, int beta) {
+        if (ply > 0 && evaluation.isGameOver(session)) {
+            return terminalScore(evaluation.evaluate(session), ply);
+        }
+        if (depth <= 0 || ply >= MAX_PLY - 1) {
+            return quiesce(ply, alpha, beta);
+        }
+        if (++nodes % 2048 == 0 && isTimeUp()) {
+            aborted = true;
+            return 0;
+        }
+
+        long key = session.zobristKey();
+        int hashMove = -1;
+        long entry = table.probe(key);
+        if (entry != TranspositionTable.MISS) {
+            hashMove = TranspositionTable.from(entry) | TranspositionTable.to(entry) << 16;
+            if (ply > 0 && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.EXACT
+                        || (bound == TranspositionTable.LOWER && score >= beta)
+                        || (bound == TranspositionTable.UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int count = orderMoves(ply, hashMove, false);
+        if (count == 0) {
+            return -Evaluation.WIN + ply;
+        }
+
+        int originalAlpha = alpha;
+        int best = -INFINITY;
+        int bestMove = -1;
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(ply, i, count);
+            make(move);
+            int score = -search(depth - 1, ply + 1, -beta, -alpha);
+            session.unmakeMove();
+            if (aborted) return 0;
+
+            if (score > best) {
+                best = score;
+                bestMove = move;
+                if (ply == 0) rootMove = move;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (board.pieceAt(move >>> 16) == null) {
+                    storeKiller(ply, move);
+                    history[(move & 0xFFFF) * board.getCellCount() + (move >>> 16)] += depth * depth;
+                }
+                break;
+            }
+        }
+
+        int bound = best <= originalAlpha ? TranspositionTable.UPPER
+                : best >= beta ? TranspositionTable.LOWER : TranspositionTable.EXACT;
+        table.store(key, bestMove & 0xFFFF, bestMove >>> 16, depth, bound, toTable(best, ply));
+        return best;
+    }
+
+    // Só capturas, para não avaliar posições no meio de uma troca
+    private int quiesce(int ply, int alpha, int beta) {
+        if (++nodes % 2048 == 0 && isTimeUp()) {
+            aborted = true;
+            return 0;
+        }
+        int standPat = evaluation.evaluate(session);
+        if (standPat >= beta || ply >= MAX_PLY - 1) {
+            return standPat;
+        }
+        if (standPat > alpha) {
+            alpha = standPat;
+        }
+
+        int count = orderMoves(ply, -1, true);
+        for (int i = 0; i < count; i++) {
+            int move = nextMove(ply, i, count);
+            make(move);
+            int score = evaluation.isGameOver(session)
+                    ? -terminalScore(evaluation.evaluate(session), ply + 1)
+                    : -quiesce(ply + 1, -beta, -alpha);
+            session.unmakeMove();
+            if (aborted) return 0;
+
+            if (score >= beta) return score;
+            if (score > alpha) alpha = score;
+        }
+        return alpha;
+    }
+
+    private int orderMoves(int ply, int hashMove, boolean capturesOnly) {
+        MoveBuffer buffer = buffers[ply];
+        session.generateLegalMoves(session.currentPlayer(), buffer);
+        if (ordered[ply].length < buffer.size()) {
+            ordered[ply] = new int[buffer.size() * 2];
+            orderScores[ply] = new int[buffer.size() * 2];
+        }
+        int[] moves = ordered[ply];
+        int[] scores = orderScores[ply];
+        int cells = board.getCellCount();
+
+        int count = 0;
+        for (int i = 0; i < buffer.size(); i++) {
+            int move = buffer.get(i);
+            boolean capture = board.pieceAt(buffer.to(i)) != null;
+            if (capturesOnly && !capture) continue;
+
+            int score;
+            if (move == hashMove) score = 1 << 30;
+            else if (capture) score = 1 << 29;
+            else if (move == killers[ply][0] || move == killers[ply][1]) score = 1 << 28;
+            else score = history[buffer.from(i) * cells + buffer.to(i)] + (noise == null ? 0 : noise.nextInt(NOISE));
+            moves[count] = move;
+            scores[count] = score;
+            count++;
+        }
+        return count;
+    }
+
+    // Seleção parcial: traz para a posição i o melhor lance restante
+    private int nextMove(int ply, int i, int count) {
+        int[] moves = ordered[ply];
+        int[] scores = orderScores[ply];
+        int best = i;
+        for (int j = i + 1; j < count; j++) {
+            if (scores[j] > scores[best]) best = j;
+        }
+        int move = moves[best];
+        moves[best] = moves[i];
+        moves[i] = move;
+        int score = scores[best];
+        scores[best] = scores[i];
+        scores[i] = score;
+        return move;
+    }
+
+    private void make(int move) {
+        session.makeMove(move & 0xFFFF, move >>> 16);
+    }
+
+    private void storeKiller(int ply, int move) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+    }
+
+    private boolean isTimeUp() {
+        return stop.get() || System.nanoTime() > deadline;
+    }
+
+    // Na tabela, o mate é contado a partir do nó guardado, não da raiz: a mesma posição aparece em outros plies
+    private static int toTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score + ply;
+        if (score <= -MATE_BOUND) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score >= MATE_BOUND) return score - ply;
+        if (score <= -MATE_BOUND) return score + ply;
+        return score;
+    }
+
+    private int terminalScore(int score, int ply) {
+        if (score >= Evaluation.WIN) return Evaluation.WIN - ply;
+        if (score <= -Evaluation.WIN) return -Evaluation.WIN + ply;
+        return score;
+    }
+}
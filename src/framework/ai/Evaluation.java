@@ -0,0 +1,12 @@
+package framework.ai;
+
+import framework.patterns.structural.proxy.IGameSession;
+
+public interface Evaluation {
+    int WIN = 1_000_000;
+
+    // Pontuação do ponto de vista do jogador da vez; posições decididas valem +WIN ou -WIN
+    int evaluate(IGameSession session);
+
+    boolean isGameOver(IGameSession session);
+}
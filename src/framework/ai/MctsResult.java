@@ -0,0 +1,19 @@
+package framework.ai;
+
+public record MctsResult(
+        int from,
+        int to,
+        int visits,
+        double winRate,
+        long playouts,
+        int treeSize,
+        long nanos
+) {
+    public boolean hasMove() {
+        return from >= 0;
+    }
+
+    public double playoutsPerSecond() {
+        return nanos == 0 ? 0 : playouts * 1_000_000_000.0 / nanos;
+    }
+}
@@ -0,0 +1,239 @@
+package framework.ai;
+
+import framework.core.MoveBuffer;
+import framework.patterns.structural.facade.GameSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+    MCTS com seleção UCT. A árvore fica em uma arena de arrays primitivos
+    paralelos (um índice por nó, filhos contíguos), sem objetos por nó.
+
+    A cada rodada são escolhidas várias folhas (com "perda virtual" para que
+    não sejam sempre a mesma) e os playouts aleatórios dessas folhas rodam em
+    threads virtuais, cada um sobre sua própria cópia da sessão. A seleção
+    também anda numa cópia: a sessão recebida nunca é alterada.
+ */
+public class MonteCarloTreeSearch {
+    private static final int MAX_TREE_DEPTH = 128;
+    private static final int MAX_PLAYOUT_PLIES = 200;
+    private static final double EXPLORATION = Math.sqrt(2);
+
+    private final Evaluation evaluation;
+    private final int batchSize;
+
+    private final int[] parent;
+    private final int[] move;
+    private final int[] firstChild;
+    private final int[] childCount;
+    private final int[] visits;
+    private final double[] reward;
+    private int size;
+
+    private final int[][] paths;
+    private final int[] pathLengths;
+    private final int[] leaves;
+    private final MoveBuffer[] playoutBuffers;
+    private final MoveBuffer moves = new MoveBuffer();
+
+    public MonteCarloTreeSearch(Evaluation evaluation) {
+        this(evaluation, 1 << 20, 64);
+    }
+
+    public MonteCarloTreeSearch(Evaluation evaluation, int capacity, int batchSize) {
+        this.evaluation = evaluation;
+        this.batchSize = batchSize;
+        this.parent = new int[capacity];
+        this.move = new int[capacity];
+        this.firstChild = new int[capacity];
+        this.childCount = new int[capacity];
+        this.visits = new int[capacity];
+        this.reward = new double[capacity];
+        this.paths = new int[batchSize][MAX_TREE_DEPTH];
+        this.pathLengths = new int[batchSize];
+        this.leaves = new int[batchSize];
+        this.playoutBuffers = new MoveBuffer[batchSize];
+        for (int i = 0; i < batchSize; i++) {
+            playoutBuffers[i] = new MoveBuffer();
+        }
+    }
+
+    // timeLimitMillis ou maxPlayouts <= 0 significam "sem limite"; ao menos um deles deve ser positivo
+    public MctsResult search(GameSession session, long timeLimitMillis, long maxPlayouts) {
+        if (timeLimitMillis <= 0 && maxPlayouts <= 0) {
+            throw new IllegalArgumentException("É preciso limitar a busca por tempo ou por playouts");
+        }
+        long start = System.nanoTime();
+        long deadline = timeLimitMillis > 0 ? start + timeLimitMillis * 1_000_000 : Long.MAX_VALUE;
+        long limit = maxPlayouts > 0 ? maxPlayouts : Long.MAX_VALUE;
+
+        size = 1;
+        parent[0] = -1;
+        childCount[0] = -1;
+        visits[0] = 0;
+        reward[0] = 0;
+
+        GameSession root = session.clone();
+        List<GameSession> workers = new ArrayList<>();
+        for (int i = 0; i < batchSize; i++) {
+            workers.add(session.clone());
+        }
+
+        long playouts = 0;
+        SplittableRandom seeds = new SplittableRandom();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Double>> results = new ArrayList<>(batchSize);
+            while (playouts < limit && System.nanoTime() < deadline) {
+                int batch = (int) Math.min(batchSize, limit - playouts);
+                for (int i = 0; i < batch; i++) {
+                    leaves[i] = select(root, i);
+                }
+
+                results.clear();
+                for (int i = 0; i < batch; i++) {
+                    GameSession worker = workers.get(i);
+                    MoveBuffer buffer = playoutBuffers[i];
+                    int[] path = paths[i];
+                    int length = pathLengths[i];
+                    SplittableRandom random = seeds.split();
+                    results.add(executor.submit(() -> playout(worker, buffer, path, length, random)));
+                }
+                for (int i = 0; i < batch; i++) {
+                    backpropagate(leaves[i], join(results.get(i)));
+                }
+                playouts += batch;
+            }
+        }
+
+        int best = -1;
+        for (int c = firstChild[0]; childCount[0] > 0 && c < firstChild[0] + childCount[0]; c++) {
+            if (best < 0 || visits[c] > visits[best]) best = c;
+        }
+        long nanos = System.nanoTime() - start;
+        if (best < 0) {
+            return new MctsResult(-1, -1, 0, 0, playouts, size, nanos);
+        }
+        return new MctsResult(move[best] & 0xFFFF, move[best] >>> 16, visits[best],
+                reward[best] / Math.max(1, visits[best]), playouts, size, nanos);
+    }
+
+    // Desce pela árvore com UCT, expande a folha e desfaz os lances na sessão; o caminho fica em paths[slot]
+    private int select(GameSession session, int slot) {
+        int[] path = paths[slot];
+        int length = 0;
+        int node = 0;
+        visits[node]++;
+
+        while (length < MAX_TREE_DEPTH) {
+            if (childCount[node] < 0) {
+                if (evaluation.isGameOver(session) || !expand(session, node)) break;
+            }
+            if (childCount[node] == 0) break;
+
+            node = bestChild(node);
+            path[length++] = move[node];
+            play(session, move[node]);
+            if (visits[node]++ == 0) break;
+        }
+        for (int i = 0; i < length; i++) {
+            session.unmakeMove();
+        }
+        pathLengths[slot] = length;
+        return node;
+    }
+
+    private boolean expand(GameSession session, int node) {
+        int count = session.generateLegalMoves(session.currentPlayer(), moves);
+        if (size + count > parent.length) return false;
+        firstChild[node] = size;
+        childCount[node] = count;
+        for (int i = 0; i < count; i++) {
+            int child = size++;
+            parent[child] = node;
+            move[child] = moves.get(i);
+            childCount[child] = -1;
+            visits[child] = 0;
+            reward[child] = 0;
+        }
+        return true;
+    }
+
+    private int bestChild(int node) {
+        double logParent = Math.log(visits[node]);
+        int best = firstChild[node];
+        double bestValue = Double.NEGATIVE_INFINITY;
+        for (int c = firstChild[node]; c < firstChild[node] + childCount[node]; c++) {
+            if (visits[c] == 0) return c;
+            double value = reward[c] / visits[c] + EXPLORATION * Math.sqrt(logParent / visits[c]);
+            if (value > bestValue) {
+                bestValue = value;
+                best = c;
+            }
+        }
+        return best;
+    }
+
+    // result é do ponto de vista de quem joga na folha; cada nó guarda o ponto de vista de quem fez o lance até ele
+    private void backpropagate(int node, double result) {
+        double value = 1 - result;
+        while (node >= 0) {
+            reward[node] += value;
+            value = 1 - value;
+            node = parent[node];
+        }
+    }
+
+    private double playout(GameSession session, MoveBuffer buffer, int[] path, int length, SplittableRandom random) {
+        int played = 0;
+        for (int i = 0; i < length; i++) {
+            play(session, path[i]);
+            played++;
+        }
+
+        double result;
+        int plies = 0;
+        int sign = 1;
+        while (true) {
+            if (evaluation.isGameOver(session) || plies == MAX_PLAYOUT_PLIES) {
+                int score = evaluation.evaluate(session) * sign;
+                result = score > 0 ? 1 : score < 0 ? 0 : 0.5;
+                break;
+            }
+            int count = session.generateLegalMoves(session.currentPlayer(), buffer);
+            if (count == 0) {
+                result = sign > 0 ? 0 : 1;
+                break;
+            }
+            play(session, buffer.get(random.nextInt(count)));
+            played++;
+            plies++;
+            sign = -sign;
+        }
+
+        for (int i = 0; i < played; i++) {
+            session.unmakeMove();
+        }
+        return result;
+    }
+
+    private void play(GameSession session, int packed) {
+        session.makeMove(packed & 0xFFFF, packed >>> 16);
+    }
+
+    private double join(Future<Double> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Busca interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em um playout", e.getCause());
+        }
+    }
+}
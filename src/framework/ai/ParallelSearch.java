@@ -0,0 +1,109 @@
+package framework.ai;
+
+import framework.patterns.structural.facade.GameSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/*
+    Lazy SMP: N buscas alfa-beta independentes, cada uma sobre sua própria cópia
+    da sessão (GameSession.clone, feita só na preparação), compartilhando uma
+    única tabela de transposição. A thread 0 decide o lance; quando ela termina,
+    as demais são interrompidas. Com uma thread a busca roda numa cópia, na
+    thread chamadora, e é determinística.
+
+    Para não repetirem o trabalho da thread 0, os ajudantes variam a busca: os
+    ímpares começam o aprofundamento um nível mais fundo e cada um embaralha os
+    lances quietos com uma semente própria, então chegam à tabela com outras
+    posições e outros cortes. A escala de nós por segundo com o número de núcleos
+    ainda não foi medida (o ambiente de desenvolvimento tem um núcleo só).
+ */
+public class ParallelSearch implements AutoCloseable {
+    private final TranspositionTable table;
+    private final List<AlphaBetaSearch> workers = new ArrayList<>();
+    private final ForkJoinPool pool;
+
+    public ParallelSearch(Evaluation evaluation, int threads) {
+        this(evaluation, threads, new TranspositionTable(22));
+    }
+
+    public ParallelSearch(Evaluation evaluation, int threads, TranspositionTable table) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Número de threads inválido: " + threads);
+        }
+        this.table = table;
+        for (int i = 0; i < threads; i++) {
+            AlphaBetaSearch worker = new AlphaBetaSearch(evaluation, table);
+            worker.diversify(i);
+            workers.add(worker);
+        }
+        this.pool = threads > 1 ? new ForkJoinPool(threads) : null;
+    }
+
+    public int getThreads() {
+        return workers.size();
+    }
+
+    public TranspositionTable getTable() {
+        return table;
+    }
+
+    public SearchResult search(GameSession session, int maxDepth, long timeLimitMillis) {
+        if (pool == null) {
+            return workers.get(0).search(session, maxDepth, timeLimitMillis);
+        }
+
+        AtomicBoolean stop = new AtomicBoolean();
+        List<Callable<SearchResult>> tasks = new ArrayList<>();
+        for (int i = 0; i < workers.size(); i++) {
+            AlphaBetaSearch worker = workers.get(i);
+            GameSession copy = session.clone();
+            boolean main = i == 0;
+            tasks.add(() -> {
+                try {
+                    return worker.searchCopy(copy, maxDepth, timeLimitMillis, stop);
+                } finally {
+                    if (main) stop.set(true);
+                }
+            });
+        }
+
+        long start = System.nanoTime();
+        List<Future<SearchResult>> results = pool.invokeAll(tasks);
+        long nanos = System.nanoTime() - start;
+
+        SearchResult best = null;
+        long nodes = 0;
+        for (Future<SearchResult> future : results) {
+            SearchResult result = join(future);
+            nodes += result.nodes();
+            if (best == null || (!best.hasMove() && result.hasMove())) {
+                best = result;
+            }
+        }
+        return new SearchResult(best.from(), best.to(), best.score(), best.depth(), nodes, nanos);
+    }
+
+    private SearchResult join(Future<SearchResult> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Busca interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha em uma thread de busca", e.getCause());
+        }
+    }
+
+    @Override
+    public void close() {
+        if (pool != null) {
+            pool.shutdownNow();
+        }
+    }
+}
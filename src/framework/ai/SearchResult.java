@@ -0,0 +1,18 @@
+package framework.ai;
+
+public record SearchResult(
+        int from,
+        int to,
+        int score,
+        int depth,
+        long nodes,
+        long nanos
+) {
+    public boolean hasMove() {
+        return from >= 0;
+    }
+
+    public double nodesPerSecond() {
+        return nanos == 0 ? 0 : nodes * 1_000_000_000.0 / nanos;
+    }
+}
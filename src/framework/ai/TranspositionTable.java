@@ -0,0 +1,85 @@
+package framework.ai;
+
+import java.util.Arrays;
+
+/*
+    Tabela de transposição de tamanho fixo (potência de dois) com cada entrada
+    empacotada em um long. A chave guardada é key ^ data, então uma entrada
+    escrita pela metade por outra thread simplesmente não confere na leitura:
+    não há travas, e threads de busca podem compartilhar a mesma tabela.
+
+    Layout de data: lance (bits 0-23, origem | destino << 12), profundidade
+    (24-31), tipo de limite (32-33), bit de validade (34) e pontuação (35-63).
+ */
+public class TranspositionTable {
+    public static final int EXACT = 0, LOWER = 1, UPPER = 2;
+    public static final long MISS = 0;
+
+    private static final long VALID = 1L << 34;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int mask;
+
+    public TranspositionTable(int sizeLog2) {
+        if (sizeLog2 < 1 || sizeLog2 > 30) {
+            throw new IllegalArgumentException("Tamanho inválido para a tabela: 2^" + sizeLog2);
+        }
+        this.keys = new long[1 << sizeLog2];
+        this.data = new long[1 << sizeLog2];
+        this.mask = (1 << sizeLog2) - 1;
+    }
+
+    public long probe(long key) {
+        int slot = (int) key & mask;
+        long entry = data[slot];
+        return (keys[slot] ^ entry) == key && (entry & VALID) != 0 ? entry : MISS;
+    }
+
+    // Substitui por profundidade: só sobrescreve outra posição se a busca nova for pelo menos tão funda
+    public void store(long key, int from, int to, int depth, int bound, int score) {
+        int slot = (int) key & mask;
+        long current = data[slot];
+        boolean samePosition = (keys[slot] ^ current) == key;
+        if (!samePosition && (current & VALID) != 0 && depth(current) > depth) {
+            return;
+        }
+        long entry = (from & 0xFFFL)
+                | (to & 0xFFFL) << 12
+                | (long) (depth & 0xFF) << 24
+                | (long) bound << 32
+                | VALID
+                | (long) score << 35;
+        data[slot] = entry;
+        keys[slot] = key ^ entry;
+    }
+
+    public void clear() {
+        Arrays.fill(keys, 0);
+        Arrays.fill(data, 0);
+    }
+
+    public int size() {
+        return data.length;
+    }
+
+    public static int from(long entry) {
+        return (int) (entry & 0xFFF);
+    }
+
+    public static int to(long entry) {
+        return (int) (entry >>> 12 & 0xFFF);
+    }
+
+    public static int depth(long entry) {
+        return (int) (entry >>> 24 & 0xFF);
+    }
+
+    public static int bound(long entry) {
+        return (int) (entry >>> 32 & 0x3);
+    }
+
+    public static int score(long entry) {
+        return (int) (entry >> 35);
+    }
+}
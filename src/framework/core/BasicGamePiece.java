@@ -5,6 +5,9 @@ import framework.patterns.creational.prototype.Position;
 public abstract class BasicGamePiece {
     private Position position;
     private Position initialPosition;
+    private GameBoard board;
+    private Player owner;
+    private int slot = -1;
 
     public abstract void move(Position locale, GameBoard board);
 
@@ -20,7 +23,37 @@ public abstract class BasicGamePiece {
         if(this.position == null && this.initialPosition == null) {
             this.initialPosition = position;
         }
+        Position previous = this.position;
         this.position = position;
+        if (board != null) {
+            board.relocate(this, previous, position);
+        }
+    }
+
+    public Player getOwner() {
+        return owner;
+    }
+
+    public void setOwner(Player owner) {
+        Player previous = this.owner;
+        this.owner = owner;
+        if (board != null) {
+            board.ownerChanged(this, previous);
+        }
+    }
+
+    public GameBoard getBoard() {
+        return board;
+    }
+
+    // Índice fixo da peça no PieceDeck do tabuleiro (-1 se não pertence a nenhum)
+    public int getSlot() {
+        return slot;
+    }
+
+    void attach(GameBoard board, int slot) {
+        this.board = board;
+        this.slot = slot;
     }
 
 
@@ -0,0 +1,132 @@
+package framework.core;
+
+import framework.core.cellType.CellType;
+import framework.patterns.structural.flyweight.GamePiece;
+
+/*
+    Visão imutável do tabuleiro para leitores em outras threads (renderização,
+    espectadores, bots). Peças são indexadas pelo slot do PieceDeck e guardam só
+    a casa atual (-1 se capturada).
+
+    O terreno e os dados fixos das peças (tipo e dono) são compartilhados entre
+    snapshots sucessivos; publicar um lance copia apenas o vetor de casas e
+    altera as entradas das peças que mudaram.
+ */
+public final class BoardSnapshot {
+    private final int width, height;
+    private final CellType[] terrain;
+    private final PieceType[] types;
+    private final Player[] owners;
+    private final short[] squares;
+    private final Player currentPlayer;
+    private final int turn;
+    private final long zobristKey;
+    private final long version;
+
+    private BoardSnapshot(int width, int height, CellType[] terrain, PieceType[] types, Player[] owners,
+                          short[] squares, Player currentPlayer, int turn, long zobristKey, long version) {
+        this.width = width;
+        this.height = height;
+        this.terrain = terrain;
+        this.types = types;
+        this.owners = owners;
+        this.squares = squares;
+        this.currentPlayer = currentPlayer;
+        this.turn = turn;
+        this.zobristKey = zobristKey;
+        this.version = version;
+    }
+
+    // Snapshot completo; previous (pode ser null) só empresta o terreno
+    public static BoardSnapshot of(GameBoard board, Player currentPlayer, int turn, long zobristKey, BoardSnapshot previous) {
+        CellType[] terrain = previous != null ? previous.terrain : terrainOf(board);
+        int count = board.getPieces() == null ? 0 : board.getPieces().size();
+        PieceType[] types = new PieceType[count];
+        Player[] owners = new Player[count];
+        short[] squares = new short[count];
+        for (int slot = 0; slot < count; slot++) {
+            GamePiece piece = board.pieceInSlot(slot);
+            types[slot] = piece.getProps().type();
+            owners[slot] = piece.getOwner();
+            squares[slot] = (short) board.cellIndex(piece.getPosition());
+        }
+        long version = previous == null ? 0 : previous.version + 1;
+        return new BoardSnapshot(board.getWidth(), board.getHeight(), terrain, types, owners, squares,
+                currentPlayer, turn, zobristKey, version);
+    }
+
+    // Próximo snapshot depois de um comando que só alterou as peças dos slots indicados (-1 = nenhuma)
+    public BoardSnapshot next(GameBoard board, int changedSlot, int otherSlot, Player currentPlayer, int turn, long zobristKey) {
+        short[] moved = squares.clone();
+        if (changedSlot >= 0) moved[changedSlot] = (short) board.cellIndex(board.pieceInSlot(changedSlot).getPosition());
+        if (otherSlot >= 0) moved[otherSlot] = (short) board.cellIndex(board.pieceInSlot(otherSlot).getPosition());
+        return new BoardSnapshot(width, height, terrain, types, owners, moved, currentPlayer, turn, zobristKey, version + 1);
+    }
+
+    private static CellType[] terrainOf(GameBoard board) {
+        CellType[] terrain = new CellType[board.getCellCount()];
+        for (int i = 0; i < terrain.length; i++) {
+            terrain[i] = board.getCell(i).getType();
+        }
+        return terrain;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return terrain.length;
+    }
+
+    public CellType cellType(int square) {
+        return terrain[square];
+    }
+
+    public int pieceCount() {
+        return squares.length;
+    }
+
+    public PieceType type(int slot) {
+        return types[slot];
+    }
+
+    public Player owner(int slot) {
+        return owners[slot];
+    }
+
+    // Casa da peça do slot, ou -1 se ela foi capturada
+    public int square(int slot) {
+        return squares[slot];
+    }
+
+    // Slot da peça na casa, ou -1 se a casa está vazia
+    public int slotAt(int square) {
+        if (square < 0) return -1;
+        for (int slot = 0; slot < squares.length; slot++) {
+            if (squares[slot] == square) return slot;
+        }
+        return -1;
+    }
+
+    public Player currentPlayer() {
+        return currentPlayer;
+    }
+
+    public int turn() {
+        return turn;
+    }
+
+    public long zobristKey() {
+        return zobristKey;
+    }
+
+    // Cresce a cada snapshot publicado pela sessão
+    public long version() {
+        return version;
+    }
+}
@@ -4,9 +4,10 @@ import framework.core.cellType.BasicCellType;
 import framework.core.cellType.CellType;
 import framework.patterns.creational.prototype.Position;
 
+// Imutável: células são compartilhadas por todas as partidas que usam o mesmo Terrain
 public class Cell {
     private final Position position;
-    private CellType type;
+    private final CellType type;
 
     public Cell(Position position) {
         this.position = position;
@@ -25,8 +26,4 @@ public class Cell {
     public CellType getType() {
         return type;
     }
-
-    public void setType(CellType type) {
-        this.type = type;
-    }
 }
@@ -5,40 +5,94 @@ import framework.patterns.behavioral.iterator.PieceDeck;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.structural.flyweight.GamePiece;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 import java.util.Optional;
 
 public class GameBoard {
     private final int width, height;
-    private final Map<Position, Cell> cells;
+    private Terrain terrain;
+    private Cell[] cells;
+    private boolean sharedTerrain;
+    private final GamePiece[] occupancy;
     private PieceDeck pieces;
+    private long zobristKey;
 
     public GameBoard(int width, int height){
-        this.width = width;
-        this.height = height;
-        this.cells = new HashMap<>();
-        initializeCells();
+        this(new Terrain(width, height), false);
     }
 
-    private void initializeCells() {
-        for (int x = 0; x < width; x++) {
-            for (int y = 0; y < height; y++) {
-                Position pos = new Position(x, y);
-                cells.put(pos, new Cell(pos));
-            }
+    // Tabuleiro sobre um terreno compartilhado: por partida ficam só a ocupação e as peças
+    public GameBoard(Terrain terrain) {
+        this(terrain, true);
+    }
+
+    private GameBoard(Terrain terrain, boolean shared) {
+        this.width = terrain.getWidth();
+        this.height = terrain.getHeight();
+        this.terrain = terrain;
+        this.cells = terrain.cells();
+        this.sharedTerrain = shared;
+        this.occupancy = new GamePiece[cells.length];
+    }
+
+    // Índice row-major da célula (x + y * width), ou -1 se estiver fora do tabuleiro
+    public int cellIndex(int x, int y) {
+        if (x < 0 || y < 0 || x >= width || y >= height) {
+            return -1;
         }
+        return x + y * width;
+    }
+
+    public int cellIndex(Position pos) {
+        return pos == null ? -1 : cellIndex(pos.x(), pos.y());
     }
 
+    public boolean isInside(int x, int y) {
+        return cellIndex(x, y) >= 0;
+    }
+
+    // Um terreno compartilhado é copiado antes da alteração, para não afetar as outras partidas
     public void setCellType(int x, int y, CellType type) {
-        Position pos = new Position(x, y);
-        if (cells.containsKey(pos)) {
-            cells.get(pos).setType(type);
+        int index = cellIndex(x, y);
+        if (index < 0) return;
+        if (sharedTerrain) {
+            terrain = terrain.copy();
+            cells = terrain.cells();
+            sharedTerrain = false;
         }
+        terrain.setType(index, type);
+    }
+
+    public Terrain getTerrain() {
+        return terrain;
+    }
+
+    // Entrega o terreno para outros tabuleiros; a partir daqui setCellType copia antes de alterar
+    public Terrain shareTerrain() {
+        sharedTerrain = true;
+        return terrain;
+    }
+
+    // Tabuleiro vazio sobre o mesmo terreno, para copiar partidas sem refazer a construção
+    public GameBoard emptyCopy() {
+        return new GameBoard(shareTerrain());
+    }
+
+    protected Terrain terrain() {
+        return terrain;
+    }
+
+    public Cell getCell(int x, int y) {
+        int index = cellIndex(x, y);
+        return index < 0 ? null : cells[index];
+    }
+
+    public Cell getCell(int index) {
+        return cells[index];
     }
 
     public Cell getCell(Position pos) {
-        return cells.get(pos);
+        return pos == null ? null : getCell(pos.x(), pos.y());
     }
 
     public int getWidth() {
@@ -49,29 +103,131 @@ public class GameBoard {
         return height;
     }
 
+    public int getCellCount() {
+        return cells.length;
+    }
+
     public PieceDeck getPieces() {
         return pieces;
     }
 
     public void setPieces(PieceDeck pieces) {
         this.pieces = pieces;
+        Arrays.fill(occupancy, null);
+        zobristKey = 0;
+        if (pieces == null) return;
+        for (int slot = 0; slot < pieces.size(); slot++) {
+            GamePiece piece = pieces.get(slot);
+            attach(piece, this, slot);
+            int index = cellIndex(piece.getPosition());
+            if (index >= 0) {
+                occupancy[index] = piece;
+                zobristKey ^= zobrist(piece, index);
+                occupancyChanged(piece, -1, index);
+            }
+        }
     }
 
 
     public Optional<GamePiece> getPieceAt(Position pos) {
-        return pieces == null ? Optional.empty()
-                : pieces.stream().filter(p -> pos.equals(p.getPosition())).findFirst();
+        return Optional.ofNullable(pieceAt(cellIndex(pos)));
     }
 
-    public void placePiece(GamePiece piece, Position position) {
-        piece.setPosition(position);
+    public GamePiece pieceAt(int x, int y) {
+        return pieceAt(cellIndex(x, y));
+    }
+
+    public GamePiece pieceAt(int index) {
+        return index < 0 ? null : occupancy[index];
+    }
 
+    public void placePiece(GamePiece piece, Position position) {
         if (this.pieces == null) {
             throw new IllegalStateException("Peças ainda não foram inicializadas via setPieces().");
         }
 
-        if (!this.pieces.getAll().contains(piece)) {
+        if (!holds(piece)) {
             this.pieces.add(piece);
+            attach(piece, this, pieces.size() - 1);
+        }
+        piece.setPosition(position);
+    }
+
+    // Peça pelo índice fixo no deck; peças capturadas continuam no deck, sem posição
+    public GamePiece pieceInSlot(int slot) {
+        return pieces.get(slot);
+    }
+
+    /*
+        Tira a peça do tabuleiro mas mantém o slot no deck, como uma captura:
+        os deltas do histórico e dos diários guardam slots, e renumerar o deck
+        faria esses registros apontarem para outras peças.
+     */
+    public void removePiece(GamePiece piece) {
+        if (!holds(piece)) {
+            throw new IllegalArgumentException("Peça não está no deck deste tabuleiro.");
+        }
+        piece.setPosition(null);
+    }
+
+    private boolean holds(GamePiece piece) {
+        int slot = piece.getSlot();
+        return pieces != null && piece.getBoard() == this && slot >= 0 && slot < pieces.size() && pieces.get(slot) == piece;
+    }
+
+    private static void attach(BasicGamePiece piece, GameBoard board, int slot) {
+        piece.attach(board, slot);
+    }
+
+    // Chamado por BasicGamePiece.setPosition para manter o índice de ocupação
+    void relocate(BasicGamePiece piece, Position previous, Position current) {
+        int from = cellIndex(previous);
+        if (from >= 0 && occupancy[from] == piece) {
+            occupancy[from] = null;
+            zobristKey ^= zobrist(piece, from);
+        } else {
+            from = -1;
+        }
+        int to = cellIndex(current);
+        if (to >= 0) {
+            occupancy[to] = (GamePiece) piece;
+            zobristKey ^= zobrist(piece, to);
         }
+        occupancyChanged((GamePiece) piece, from, to);
+    }
+
+    // Chamado por BasicGamePiece.setOwner: a chave de uma peça depende do dono
+    void ownerChanged(BasicGamePiece piece, Player previous) {
+        int index = cellIndex(piece.getPosition());
+        if (index >= 0 && occupancy[index] == piece) {
+            PieceType type = ((GamePiece) piece).getProps().type();
+            zobristKey ^= ZobristKeys.piece(type, previous, index) ^ ZobristKeys.piece(type, piece.getOwner(), index);
+        }
+    }
+
+    // Hash de Zobrist das peças no tabuleiro, mantido a cada alteração de ocupação
+    public long getZobristKey() {
+        return zobristKey;
+    }
+
+    private static long zobrist(BasicGamePiece piece, int index) {
+        return ZobristKeys.piece(((GamePiece) piece).getProps().type(), piece.getOwner(), index);
+    }
+
+    // Destinos válidos da peça que está em from; tabuleiros com representação própria podem gerar sem testar casa a casa
+    public void addLegalTargets(GamePiece piece, int from, MoveBuffer moves) {
+        for (int to = 0; to < cells.length; to++) {
+            if (to != from && piece.canMove(cells[to].getPosition(), this)) {
+                moves.add(from, to);
+            }
+        }
+    }
+
+    public boolean isLegalTarget(GamePiece piece, int from, int to) {
+        return to != from && piece.canMove(cells[to].getPosition(), this);
+    }
+
+    // Gancho para tabuleiros que mantêm índices próprios; from/to valem -1 quando a peça entra ou sai
+    protected void occupancyChanged(GamePiece piece, int from, int to) {
     }
 }
@@ -3,20 +3,87 @@ package framework.core;
 import framework.patterns.creational.abstractFactory.GameAbstractFactory;
 
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.Map;
+import java.util.ServiceLoader;
+import java.util.Set;
+import java.util.function.Supplier;
 
-public class GameRegistry {
-    private static final Map<String, GameAbstractFactory> registry = new HashMap<>();
+/*
+    Jogos são descobertos pelo arquivo de provedores
+    META-INF/services/framework.patterns.creational.abstractFactory.GameAbstractFactory:
+    cada linha é uma fábrica anotada com @GameId. Só a anotação é lida na partida;
+    a fábrica é instanciada no primeiro get do seu id.
 
-    public static void register(String gameId, GameAbstractFactory factory) {
-        registry.put(gameId, factory);
+    Sem o arquivo no classpath (por exemplo, compilando só com javac -d, que não
+    copia recursos) nenhum jogo é descoberto; a aplicação registra as fábricas
+    que usa com register.
+
+    O mapa é imutável e trocado inteiro a cada register, então as leituras não
+    usam trava nenhuma.
+ */
+public final class GameRegistry {
+    private static volatile Map<String, Registration> registry = discover();
+
+    private GameRegistry() {
+    }
+
+    private static final class Registration {
+        private final Supplier<? extends GameAbstractFactory> provider;
+        private volatile GameAbstractFactory factory;
+
+        Registration(Supplier<? extends GameAbstractFactory> provider) {
+            this.provider = provider;
+        }
+
+        GameAbstractFactory factory() {
+            GameAbstractFactory result = factory;
+            if (result == null) {
+                synchronized (this) {
+                    result = factory;
+                    if (result == null) {
+                        result = provider.get();
+                        factory = result;
+                    }
+                }
+            }
+            return result;
+        }
+    }
+
+    private static Map<String, Registration> discover() {
+        Map<String, Registration> found = new HashMap<>();
+        for (ServiceLoader.Provider<GameAbstractFactory> provider : ServiceLoader.load(GameAbstractFactory.class).stream().toList()) {
+            GameId id = provider.type().getAnnotation(GameId.class);
+            if (id == null) {
+                throw new IllegalStateException("Fábrica sem @GameId: " + provider.type().getName());
+            }
+            if (found.putIfAbsent(id.value(), new Registration(provider)) != null) {
+                throw new IllegalStateException("Jogo registrado duas vezes: " + id.value());
+            }
+        }
+        return Map.copyOf(found);
+    }
+
+    public static synchronized void register(String gameId, GameAbstractFactory factory) {
+        Map<String, Registration> updated = new HashMap<>(registry);
+        updated.put(gameId, new Registration(() -> factory));
+        registry = Map.copyOf(updated);
     }
 
     public static GameAbstractFactory get(String gameId) {
-        return registry.get(gameId);
+        Registration registration = registry.get(gameId);
+        return registration == null ? null : registration.factory();
+    }
+
+    public static Set<String> ids() {
+        return registry.keySet();
     }
 
+    // Instancia todas as fábricas ainda não usadas
     public static Map<String, GameAbstractFactory> getAll() {
-        return registry;
+        Map<String, GameAbstractFactory> all = new LinkedHashMap<>();
+        registry.forEach((id, registration) -> all.put(id, registration.factory()));
+        return all;
     }
 }
@@ -0,0 +1,49 @@
+package framework.core;
+
+import java.util.Arrays;
+
+/*
+    Lista reutilizável de lances: cada lance é guardado como um int
+    (índice da casa de origem | índice da casa de destino << 16), com os
+    índices de GameBoard.cellIndex. Depois de crescer até o tamanho
+    necessário, clear/add não alocam mais nada.
+ */
+public class MoveBuffer {
+    private int[] moves;
+    private int size;
+
+    public MoveBuffer() {
+        this(64);
+    }
+
+    public MoveBuffer(int capacity) {
+        this.moves = new int[Math.max(capacity, 1)];
+    }
+
+    public void clear() {
+        size = 0;
+    }
+
+    public void add(int from, int to) {
+        if (size == moves.length) {
+            moves = Arrays.copyOf(moves, size * 2);
+        }
+        moves[size++] = from | to << 16;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int get(int i) {
+        return moves[i];
+    }
+
+    public int from(int i) {
+        return moves[i] & 0xFFFF;
+    }
+
+    public int to(int i) {
+        return moves[i] >>> 16;
+    }
+}
@@ -0,0 +1,82 @@
+package framework.core;
+
+import java.util.Arrays;
+
+/*
+    Conjunto de casas destacadas, uma máscara de bits por OverlayKind, entregue
+    ao motor gráfico de uma vez. Marcar uma casa duas vezes não a repete.
+ */
+public final class Overlay {
+    private static final OverlayKind[] KINDS = OverlayKind.values();
+
+    private long[][] masks = new long[KINDS.length][0];
+    private int width, cellCount;
+
+    public Overlay() {
+    }
+
+    public Overlay(int width, int height) {
+        reset(width, height);
+    }
+
+    // Esvazia o conjunto, reaproveitando as máscaras quando o tamanho do tabuleiro não muda
+    public void reset(int width, int height) {
+        int cellCount = width * height;
+        int words = (cellCount + 63) >>> 6;
+        for (int kind = 0; kind < KINDS.length; kind++) {
+            if (masks[kind].length != words) {
+                masks[kind] = new long[words];
+            } else {
+                Arrays.fill(masks[kind], 0);
+            }
+        }
+        this.width = width;
+        this.cellCount = cellCount;
+    }
+
+    public void add(OverlayKind kind, int square) {
+        if (square < 0 || square >= cellCount) return;
+        masks[kind.ordinal()][square >>> 6] |= 1L << square;
+    }
+
+    public boolean contains(OverlayKind kind, int square) {
+        return square >= 0 && square < cellCount && (masks[kind.ordinal()][square >>> 6] & 1L << square) != 0;
+    }
+
+    // Destaque que a casa deve mostrar, ou null se não tem nenhum
+    public OverlayKind kindAt(int square) {
+        for (int kind = KINDS.length - 1; kind >= 0; kind--) {
+            if (contains(KINDS[kind], square)) return KINDS[kind];
+        }
+        return null;
+    }
+
+    // Próxima casa com o destaque a partir de square (inclusive), ou -1; para percorrer: for (s = next(k, 0); s >= 0; s = next(k, s + 1))
+    public int next(OverlayKind kind, int square) {
+        if (square < 0 || square >= cellCount) return -1;
+        long[] mask = masks[kind.ordinal()];
+        int word = square >>> 6;
+        long bits = mask[word] & -1L << square;
+        while (bits == 0) {
+            if (++word == mask.length) return -1;
+            bits = mask[word];
+        }
+        return (word << 6) + Long.numberOfTrailingZeros(bits);
+    }
+
+    public int count(OverlayKind kind) {
+        int count = 0;
+        for (long word : masks[kind.ordinal()]) {
+            count += Long.bitCount(word);
+        }
+        return count;
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getCellCount() {
+        return cellCount;
+    }
+}
@@ -0,0 +1,6 @@
+package framework.core;
+
+// Em uma casa com mais de um destaque vale o de maior ordinal
+public enum OverlayKind {
+    REACHABLE, CAPTURE, LAST_MOVE, THREATENED
+}
@@ -20,5 +20,8 @@ public class Player {
 
     public void setPieces(List<GamePiece> pieces) {
         this.pieces = pieces;
+        for (GamePiece piece : pieces) {
+            piece.setOwner(this);
+        }
     }
 }
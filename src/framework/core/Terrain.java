@@ -0,0 +1,77 @@
+package framework.core;
+
+import framework.core.cellType.CellType;
+import framework.patterns.creational.prototype.Position;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
+
+/*
+    Camada estática do tabuleiro: dimensões e células (posição e tipo). Um mesmo
+    terreno é compartilhado por todas as partidas de um jogo; só o GameBoard que
+    o criou pode alterá-lo, e apenas antes de compartilhá-lo (GameBoard.shareTerrain
+    ou emptyCopy). As células são imutáveis.
+
+    Tabelas derivadas do terreno (saltos, alcance etc.) ficam guardadas aqui para
+    serem calculadas uma vez por terreno, não uma vez por partida.
+ */
+public final class Terrain {
+    private final int width, height;
+    private final Cell[] cells;
+    private final Map<Class<?>, Object> derived = new ConcurrentHashMap<>();
+
+    public Terrain(int width, int height) {
+        this.width = width;
+        this.height = height;
+        this.cells = new Cell[width * height];
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                cells[x + y * width] = new Cell(new Position(x, y));
+            }
+        }
+    }
+
+    // As células são imutáveis, então a cópia pode apontar para as mesmas
+    private Terrain(Terrain source) {
+        this.width = source.width;
+        this.height = source.height;
+        this.cells = source.cells.clone();
+    }
+
+    public int getWidth() {
+        return width;
+    }
+
+    public int getHeight() {
+        return height;
+    }
+
+    public int getCellCount() {
+        return cells.length;
+    }
+
+    public Cell getCell(int index) {
+        return cells[index];
+    }
+
+    // Tabela derivada do terreno, calculada na primeira consulta e reaproveitada pelas demais partidas
+    @SuppressWarnings("unchecked")
+    public <T> T derived(Class<T> key, Function<Terrain, T> builder) {
+        return (T) derived.computeIfAbsent(key, k -> builder.apply(this));
+    }
+
+    Cell[] cells() {
+        return cells;
+    }
+
+    Terrain copy() {
+        return new Terrain(this);
+    }
+
+    // Troca a célula inteira; quem já leu a anterior continua vendo o tipo antigo
+    void setType(int index, CellType type) {
+        cells[index] = new Cell(cells[index].getPosition(), type);
+        derived.clear();
+    }
+}
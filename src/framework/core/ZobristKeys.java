@@ -0,0 +1,33 @@
+package framework.core;
+
+/*
+    Chaves de Zobrist geradas por uma função de mistura (splitmix64) em vez de
+    uma tabela aleatória: não dependem do tamanho do tabuleiro nem dos tipos de
+    peça de cada jogo e são as mesmas em qualquer execução da JVM.
+ */
+public final class ZobristKeys {
+    private static final long PIECE_SEED = 0x2545F4914F6CDD1DL;
+    private static final long TURN_SEED = 0x5DEECE66DL;
+
+    private ZobristKeys() {
+    }
+
+    public static long piece(PieceType type, Player owner, int square) {
+        long typeId = type.getName().hashCode() & 0xFFFFFFFFL;
+        long ownerId = owner == null ? 0 : owner.getId().hashCode() & 0xFFFFFFFFL;
+        return mix(PIECE_SEED
+                ^ typeId * 0x9E3779B97F4A7C15L
+                ^ ownerId * 0xC2B2AE3D27D4EB4FL
+                ^ square * 0x165667B19E3779F9L);
+    }
+
+    public static long turn(int turn) {
+        return mix(TURN_SEED + turn);
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -4,9 +4,10 @@ import framework.patterns.creational.prototype.Position;
 import framework.core.GameBoard;
 import framework.patterns.structural.flyweight.GamePiece;
 
+// A peça capturada só sai do tabuleiro (fica sem posição) e continua no deck, para poder voltar
 public class CapturePieceCommand implements GameCommand{
     private final GameBoard board;
-    private final Position target;
+    private Position target;
     private GamePiece captured;
 
     public CapturePieceCommand(GameBoard board, Position target) {
@@ -14,11 +15,40 @@ public class CapturePieceCommand implements GameCommand{
         this.target = target;
     }
 
+    // Reaproveita o comando para outra casa, sem alocar um novo
+    public CapturePieceCommand retarget(Position target) {
+        this.target = target;
+        return this;
+    }
+
     @Override
     public void execute() {
         captured = board.getPieceAt(target).orElse(null);
         if (captured != null) {
-            board.getPieces().getAll().remove(captured);
+            captured.setPosition(null);
+        }
+    }
+
+    @Override
+    public void apply(UndoRecord record) {
+        int square = board.cellIndex(target);
+        captured = board.pieceAt(square);
+        if (captured != null) {
+            record.setCapture(captured.getSlot(), square);
+            captured.setPosition(null);
+        } else {
+            record.setTurnOnly();
         }
     }
+
+    @Override
+    public void revert(UndoRecord record) {
+        if (record.getCapturedSlot() >= 0) {
+            board.pieceInSlot(record.getCapturedSlot()).setPosition(board.getCell(record.getTo()).getPosition());
+        }
+    }
+
+    public GamePiece getCaptured() {
+        return captured;
+    }
 }
@@ -2,4 +2,13 @@ package framework.patterns.behavioral.command;
 
 public interface GameCommand {
     void execute();
+
+    // Executa anotando em record tudo o que mudou, para que revert desfaça sem guardar cópias.
+    // O padrão só executa, sem anotar: um comando assim não entra no histórico da sessão
+    default void apply(UndoRecord record) {
+        execute();
+    }
+
+    // Desfaz o que apply anotou em record; todo comando precisa saber se desfazer
+    void revert(UndoRecord record);
 }
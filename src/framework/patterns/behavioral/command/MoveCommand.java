@@ -7,13 +7,23 @@ import framework.patterns.structural.flyweight.GamePiece;
 public class MoveCommand implements GameCommand{
 
     private final GameBoard gameBoard;
-    private final Position from, to;
+    private final CapturePieceCommand capture;
+    private Position from, to;
     private GamePiece piece;
 
     public MoveCommand(GameBoard gameBoard, Position from, Position to) {
         this.gameBoard = gameBoard;
         this.from = from;
         this.to = to;
+        this.capture = new CapturePieceCommand(gameBoard, to);
+    }
+
+    // Reaproveita o comando para outro lance; revert depende só do UndoRecord, não destes campos
+    public MoveCommand retarget(Position from, Position to) {
+        this.from = from;
+        this.to = to;
+        this.piece = null;
+        return this;
     }
 
     @Override
@@ -22,6 +32,27 @@ public class MoveCommand implements GameCommand{
         piece.move(to, gameBoard);
     }
 
+    @Override
+    public void apply(UndoRecord record) {
+        int origin = gameBoard.cellIndex(from);
+        int target = gameBoard.cellIndex(to);
+        piece = gameBoard.pieceAt(origin);
+        if (piece == null) {
+            throw new IllegalArgumentException("No piece at " + from);
+        }
+        piece.validateMove(to, gameBoard);
+
+        record.setMove(piece.getSlot(), origin, target);
+        capture.retarget(to).apply(record);
+        piece.setPosition(gameBoard.getCell(target).getPosition());
+    }
+
+    @Override
+    public void revert(UndoRecord record) {
+        gameBoard.pieceInSlot(record.getPieceSlot()).setPosition(gameBoard.getCell(record.getFrom()).getPosition());
+        capture.revert(record);
+    }
+
     public Position getTo() {
         return to;
     }
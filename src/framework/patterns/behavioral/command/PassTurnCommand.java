@@ -5,4 +5,14 @@ public class PassTurnCommand implements GameCommand{
     public void execute() {
 
     }
+
+    @Override
+    public void apply(UndoRecord record) {
+        record.setTurnOnly();
+    }
+
+    @Override
+    public void revert(UndoRecord record) {
+
+    }
 }
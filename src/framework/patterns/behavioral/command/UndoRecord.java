@@ -0,0 +1,108 @@
+package framework.patterns.behavioral.command;
+
+/*
+    O que um comando alterou, em inteiros: peça movida e capturada pelo índice
+    no PieceDeck, casas de origem e destino e a vez anterior. A sessão mantém
+    uma pilha destes registros e os reaproveita a cada lance.
+
+    pack() guarda o registro em um long para o histórico (bits, do menos
+    significativo): to + 1 (16), from + 1 (16), slot capturado + 1 (12),
+    slot da peça + 1 (12) e vez anterior (8).
+ */
+public final class UndoRecord {
+    private GameCommand command;
+    private int previousTurn;
+    private int pieceSlot;
+    private int capturedSlot;
+    private int from;
+    private int to;
+    // O comando anotou o que mudou (mesmo que só a vez); sem isso o registro não serve para desfazer
+    private boolean described;
+
+    private static final int SQUARE_BITS = 16, SLOT_BITS = 12, TURN_BITS = 8;
+
+    public void reset(GameCommand command, int previousTurn) {
+        this.command = command;
+        this.previousTurn = previousTurn;
+        this.pieceSlot = -1;
+        this.capturedSlot = -1;
+        this.from = -1;
+        this.to = -1;
+        this.described = false;
+    }
+
+    public GameCommand getCommand() {
+        return command;
+    }
+
+    public int getPreviousTurn() {
+        return previousTurn;
+    }
+
+    public int getPieceSlot() {
+        return pieceSlot;
+    }
+
+    public int getCapturedSlot() {
+        return capturedSlot;
+    }
+
+    public int getFrom() {
+        return from;
+    }
+
+    public int getTo() {
+        return to;
+    }
+
+    public boolean isDescribed() {
+        return described;
+    }
+
+    // Para comandos que só passam a vez
+    public void setTurnOnly() {
+        this.described = true;
+    }
+
+    public void setMove(int pieceSlot, int from, int to) {
+        this.described = true;
+        this.pieceSlot = pieceSlot;
+        this.from = from;
+        this.to = to;
+    }
+
+    public void setCapture(int capturedSlot, int square) {
+        this.described = true;
+        this.capturedSlot = capturedSlot;
+        this.to = square;
+    }
+
+    public long pack() {
+        check(to + 1, SQUARE_BITS);
+        check(from + 1, SQUARE_BITS);
+        check(capturedSlot + 1, SLOT_BITS);
+        check(pieceSlot + 1, SLOT_BITS);
+        check(previousTurn, TURN_BITS);
+        return (to + 1L)
+                | (from + 1L) << 16
+                | (capturedSlot + 1L) << 32
+                | (pieceSlot + 1L) << 44
+                | (long) previousTurn << 56;
+    }
+
+    public void unpack(long packed, GameCommand command) {
+        this.command = command;
+        this.to = (int) (packed & 0xFFFF) - 1;
+        this.from = (int) (packed >>> 16 & 0xFFFF) - 1;
+        this.capturedSlot = (int) (packed >>> 32 & 0xFFF) - 1;
+        this.pieceSlot = (int) (packed >>> 44 & 0xFFF) - 1;
+        this.previousTurn = (int) (packed >>> 56);
+        this.described = true;
+    }
+
+    private static void check(int value, int bits) {
+        if (value >>> bits != 0) {
+            throw new IllegalStateException("Valor " + value + " não cabe em " + bits + " bits do histórico");
+        }
+    }
+}
@@ -1,13 +1,6 @@
 package framework.patterns.behavioral.memento;
 
-import framework.patterns.creational.prototype.Position;
-import framework.patterns.structural.flyweight.GamePiece;
-
-public record GameMemento(
-        GamePiece piece,
-        Position previous,
-        Position current,
-        int turn
-) {
+// Um lance como o delta empacotado por UndoRecord.pack: peças movida e capturada, casas e vez anterior
+public record GameMemento(long delta) {
 
 }
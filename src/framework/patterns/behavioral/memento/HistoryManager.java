@@ -1,30 +1,272 @@
 package framework.patterns.behavioral.memento;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
 
-public record HistoryManager(
-        Deque<GameMemento> history
-) implements Caretaker<GameMemento> {
+/*
+    Histórico de lances como deltas de um long cada (ver UndoRecord.pack), com
+    desfazer e refazer. As entradas [0, cursor) podem ser desfeitas e
+    [cursor, size) refeitas; um novo lance descarta as que podiam ser refeitas.
+
+    Só uma janela de até capacity entradas fica em memória. Ela começa vazia e
+    dobra conforme a partida cresce, então uma sessão nova (ou parada no pool)
+    não paga pela capacidade inteira. O resto fica num arquivo temporário, na
+    posição índice * 8: quando a janela cheia enche, a metade mais distante do
+    cursor é gravada e a outra metade é trazida de volta quando o cursor chega
+    nela. O arquivo é apagado por close, quando a partida termina.
+ */
+public class HistoryManager implements Caretaker<GameMemento>, AutoCloseable {
+    public static final int DEFAULT_CAPACITY = 4096;
+    private static final int INITIAL_WINDOW = 16;
+    private static final long[] EMPTY = new long[0];
+
+    private long[] window = EMPTY;
+    private final int capacity;
+    private final int batch;
+    private long windowStart;
+    private int windowLength;
+    private long cursor;
+    private long size;
+    private Path spill;
+    private ByteBuffer buffer;
 
     public HistoryManager() {
-        this(new ArrayDeque<>());
+        this(DEFAULT_CAPACITY);
+    }
+
+    public HistoryManager(int capacity) {
+        if (capacity < 2) {
+            throw new IllegalArgumentException("Capacidade mínima do histórico: 2");
+        }
+        this.capacity = capacity;
+        this.batch = capacity / 2;
+    }
+
+    public void push(long entry) {
+        size = cursor;
+        windowLength = (int) (cursor - windowStart);
+        if (windowLength == capacity) {
+            evictOldest();
+        } else if (windowLength == window.length) {
+            window = Arrays.copyOf(window, Math.min(capacity, Math.max(INITIAL_WINDOW, window.length * 2)));
+        }
+        window[windowLength++] = entry;
+        size = ++cursor;
     }
 
+    // Guarda o memento do lance que o originator acabou de aplicar
     @Override
     public void backup(Originator<GameMemento> originator) {
-        history.push(originator.saveState());
+        push(originator.saveState().delta());
     }
 
+    // O cursor volta antes de restoreState, que confere que o memento é a entrada desfeita
     @Override
     public void undo(Originator<GameMemento> originator) {
-        if (!history.isEmpty()) {
-            originator.restoreState(history.pop());
-        }
+        if (!canUndo()) return;
+        originator.restoreState(new GameMemento(undo()));
     }
 
     @Override
     public boolean hasHistory() {
-        return !history.isEmpty();
+        return canUndo();
+    }
+
+    public boolean canUndo() {
+        return cursor > 0;
+    }
+
+    public boolean canRedo() {
+        return cursor < size;
+    }
+
+    // Entrada do último lance, que o próximo undo vai desfazer
+    public long peek() {
+        if (!canUndo()) throw new IllegalStateException("Histórico vazio");
+        if (cursor - 1 < windowStart) loadOlder();
+        return window[(int) (cursor - 1 - windowStart)];
+    }
+
+    public long undo() {
+        long entry = peek();
+        cursor--;
+        return entry;
+    }
+
+    public long redo() {
+        if (!canRedo()) throw new IllegalStateException("Nada para refazer");
+        if (cursor >= windowStart + windowLength) loadNewer();
+        return window[(int) (cursor++ - windowStart)];
+    }
+
+    public long size() {
+        return size;
+    }
+
+    public long cursor() {
+        return cursor;
+    }
+
+    // Entrada index (0 = a mais antiga); fora da janela é lida do disco
+    public long get(long index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Entrada " + index + " de " + size);
+        if (index >= windowStart && index < windowStart + windowLength) {
+            return window[(int) (index - windowStart)];
+        }
+        long[] entry = new long[1];
+        readRange(index, entry, 0, 1);
+        return entry[0];
+    }
+
+    public void clear() {
+        cursor = 0;
+        size = 0;
+        windowStart = 0;
+        windowLength = 0;
+    }
+
+    // Todas as entradas, em ordem, incluindo as que estão em disco
+    public long[] export() {
+        long[] entries = new long[Math.toIntExact(size)];
+        copy(0, entries, 0, entries.length);
+        return entries;
+    }
+
+    // Entradas [from, from + count) em entries; cada trecho fora da janela é lido do disco de uma vez
+    public void copy(long from, long[] entries, int offset, int count) {
+        if (from < 0 || count < 0 || from + count > size) {
+            throw new IndexOutOfBoundsException("Entradas [" + from + ", " + (from + count) + ") de " + size);
+        }
+        long end = from + count;
+        long windowEnd = windowStart + windowLength;
+        long before = Math.min(end, windowStart);
+        readRange(from, entries, offset, (int) (before - from));
+        long inside = Math.max(from, windowStart);
+        long insideEnd = Math.min(end, windowEnd);
+        if (inside < insideEnd) {
+            System.arraycopy(window, (int) (inside - windowStart), entries, offset + (int) (inside - from),
+                    (int) (insideEnd - inside));
+        }
+        long after = Math.max(from, windowEnd);
+        readRange(after, entries, offset + (int) (after - from), (int) (end - after));
+    }
+
+    // Esvazia o histórico e apaga o arquivo em disco (por exemplo, quando a partida termina)
+    @Override
+    public void close() {
+        clear();
+        window = EMPTY;
+        buffer = null;
+        if (spill == null) return;
+        try {
+            Files.deleteIfExists(spill);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao apagar o histórico em disco", e);
+        } finally {
+            spill = null;
+        }
+    }
+
+    // Quantas entradas estão gravadas no arquivo em vez da memória
+    public long spilled() {
+        return size - windowLength;
+    }
+
+    // Grava a metade mais antiga da janela e desloca o resto para o início
+    private void evictOldest() {
+        write(windowStart, 0, batch);
+        System.arraycopy(window, batch, window, 0, windowLength - batch);
+        windowStart += batch;
+        windowLength -= batch;
+    }
+
+    // O cursor passou do início da janela: grava a metade mais nova e lê as entradas anteriores
+    private void loadOlder() {
+        int count = (int) Math.min(batch, windowStart);
+        int keep = Math.min(windowLength, window.length - count);
+        write(windowStart + keep, keep, windowLength - keep);
+        System.arraycopy(window, 0, window, count, keep);
+        windowStart -= count;
+        read(windowStart, 0, count);
+        windowLength = keep + count;
+    }
+
+    // O cursor passou do fim da janela: grava a metade mais antiga e lê as seguintes
+    private void loadNewer() {
+        long end = windowStart + windowLength;
+        int count = (int) Math.min(batch, size - end);
+        int drop = Math.max(0, windowLength + count - window.length);
+        write(windowStart, 0, drop);
+        System.arraycopy(window, drop, window, 0, windowLength - drop);
+        windowStart += drop;
+        windowLength -= drop;
+        read(end, windowLength, count);
+        windowLength += count;
+    }
+
+    private void write(long index, int offset, int count) {
+        if (count <= 0) return;
+        try (FileChannel channel = FileChannel.open(spillFile(), StandardOpenOption.WRITE)) {
+            ByteBuffer bytes = buffer(count);
+            bytes.asLongBuffer().put(window, offset, count);
+            while (bytes.hasRemaining()) {
+                channel.write(bytes, index * Long.BYTES + bytes.position());
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o histórico em disco", e);
+        }
+    }
+
+    private void read(long index, int offset, int count) {
+        if (count <= 0) return;
+        try (FileChannel channel = FileChannel.open(spillFile(), StandardOpenOption.READ)) {
+            ByteBuffer bytes = buffer(count);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, index * Long.BYTES + bytes.position()) < 0) {
+                    throw new IOException("Histórico em disco truncado");
+                }
+            }
+            bytes.flip();
+            bytes.asLongBuffer().get(window, offset, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o histórico do disco", e);
+        }
+    }
+
+    private void readRange(long index, long[] entries, int offset, int count) {
+        if (count <= 0) return;
+        try (FileChannel channel = FileChannel.open(spillFile(), StandardOpenOption.READ)) {
+            ByteBuffer bytes = ByteBuffer.allocate(count * Long.BYTES);
+            while (bytes.hasRemaining()) {
+                if (channel.read(bytes, index * Long.BYTES + bytes.position()) < 0) {
+                    throw new IOException("Histórico em disco truncado");
+                }
+            }
+            bytes.flip();
+            bytes.asLongBuffer().get(entries, offset, count);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler o histórico do disco", e);
+        }
+    }
+
+    private ByteBuffer buffer(int count) {
+        if (buffer == null) {
+            buffer = ByteBuffer.allocateDirect(capacity * Long.BYTES);
+        }
+        buffer.clear().limit(count * Long.BYTES);
+        return buffer;
+    }
+
+    private Path spillFile() throws IOException {
+        if (spill == null) {
+            spill = Files.createTempFile("history", ".bin");
+        }
+        return spill;
     }
 }
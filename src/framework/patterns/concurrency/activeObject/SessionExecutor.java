@@ -0,0 +1,84 @@
+package framework.patterns.concurrency.activeObject;
+
+import framework.core.BoardSnapshot;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.proxy.IGameSession;
+
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+/*
+    Objeto ativo sobre uma sessão: os comandos entram em uma caixa de mensagens
+    e um único escritor os aplica em ordem, então a sessão nunca é alterada por
+    duas threads ao mesmo tempo. O escritor é uma thread virtual criada só
+    enquanto há mensagens, de modo que uma partida ociosa não ocupa thread.
+
+    Leitores usam o BoardSnapshot que a sessão publica após cada comando, sem
+    passar pela caixa.
+ */
+public final class SessionExecutor {
+    private final IGameSession session;
+    private final Queue<Runnable> mailbox = new ConcurrentLinkedQueue<>();
+    private final AtomicInteger pending = new AtomicInteger();
+
+    public SessionExecutor(IGameSession session) {
+        this.session = session;
+    }
+
+    public CompletableFuture<Void> move(Position from, Position to) {
+        return submit(s -> {
+            s.move(from, to);
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> undo() {
+        return submit(s -> {
+            s.undo();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> redo() {
+        return submit(s -> {
+            s.redo();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> passTurn() {
+        return submit(s -> {
+            s.passTurn();
+            return null;
+        });
+    }
+
+    // action roda no escritor da sessão
+    public <T> CompletableFuture<T> submit(Function<IGameSession, T> action) {
+        CompletableFuture<T> result = new CompletableFuture<>();
+        mailbox.add(() -> {
+            try {
+                result.complete(action.apply(session));
+            } catch (Throwable e) {
+                result.completeExceptionally(e);
+            }
+        });
+        if (pending.getAndIncrement() == 0) {
+            Thread.ofVirtual().start(this::drain);
+        }
+        return result;
+    }
+
+    public BoardSnapshot view() {
+        return session.snapshot();
+    }
+
+    private void drain() {
+        do {
+            mailbox.poll().run();
+        } while (pending.decrementAndGet() > 0);
+    }
+}
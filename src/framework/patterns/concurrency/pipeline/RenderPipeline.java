@@ -0,0 +1,201 @@
+package framework.patterns.concurrency.pipeline;
+
+import framework.core.Overlay;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.adapter.IGraphicEngineAdapter;
+import framework.patterns.structural.proxy.IGameSession;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/*
+    Estágio de renderização separado dos comandos: quem altera a sessão só
+    enfileira um aviso de mudança (sem bloquear) e uma thread de plataforma,
+    tomada de um pool compartilhado enquanto há avisos, desenha. Não é thread
+    virtual porque os adaptadores desenham dentro de métodos synchronized: um
+    motor travado prenderia a thread portadora e pararia as threads virtuais
+    das sessões.
+
+    Cada quadro desenha o snapshot mais recente da sessão, então os avisos que
+    chegam enquanto um quadro é desenhado viram um só quadro, e um aviso
+    descartado com a fila cheia não perde estado: só marca que falta desenhar.
+    Um motor gráfico lento ou travado pula quadros em vez de atrasar os lances.
+    Uma falha do motor não derruba a partida: fica contada e guardada para
+    consulta, e o próximo quadro tenta de novo.
+ */
+public final class RenderPipeline {
+    private static final ExecutorService RENDERERS =
+            Executors.newCachedThreadPool(Thread.ofPlatform().daemon().name("render-", 0).factory());
+
+    private final IGameSession session;
+    private final IGraphicEngineAdapter graphicEngine;
+    private final BlockingQueue<Event> events;
+    private final AtomicBoolean running = new AtomicBoolean();
+    private final AtomicBoolean overflowed = new AtomicBoolean();
+    // Destaque mais recente entre os avisos descartados, para o último quadro não perdê-lo
+    private final AtomicReference<Event> droppedHighlight = new AtomicReference<>();
+    private final AtomicLong sequence = new AtomicLong();
+    // Só o overlay mais recente é desenhado
+    private final AtomicReference<PendingOverlay> overlay = new AtomicReference<>();
+    // Sequência do último aviso de comando; um overlay anterior a ele já não vale para o tabuleiro
+    private final AtomicLong lastCommand = new AtomicLong();
+    private final AtomicLong dropped = new AtomicLong();
+    private final AtomicLong frames = new AtomicLong();
+    private final AtomicLong renderFailures = new AtomicLong();
+    private volatile RuntimeException lastRenderFailure;
+    private volatile boolean closed;
+    // Usados só pela thread de desenho
+    private long shownSequence;
+    // Sequência do overlay em exibição, 0 se nenhum
+    private long shownOverlay;
+
+    // highlight null = só redesenhar
+    private record Event(long sequence, Position highlight) {
+    }
+
+    private record PendingOverlay(long sequence, Overlay overlay) {
+    }
+
+    public RenderPipeline(IGameSession session, IGraphicEngineAdapter graphicEngine) {
+        this(session, graphicEngine, 64);
+    }
+
+    public RenderPipeline(IGameSession session, IGraphicEngineAdapter graphicEngine, int capacity) {
+        this.session = session;
+        this.graphicEngine = graphicEngine;
+        this.events = new ArrayBlockingQueue<>(capacity);
+    }
+
+    // Avisa um comando aplicado; o overlay em exibição, calculado antes dele, é apagado no próximo quadro
+    public void update() {
+        publish(null);
+    }
+
+    // Redesenha e destaca a posição (por exemplo, o destino do último lance)
+    public void update(Position highlight) {
+        publish(highlight);
+    }
+
+    // Desenhado no mesmo quadro que o próximo render; o overlay não deve ser alterado depois
+    public void overlay(Overlay overlay) {
+        long sequence = this.sequence.incrementAndGet();
+        this.overlay.accumulateAndGet(new PendingOverlay(sequence, overlay),
+                (a, b) -> a == null || b.sequence() > a.sequence() ? b : a);
+        offer(sequence, null);
+    }
+
+    // Avisos ainda não desenhados são descartados
+    public void close() {
+        closed = true;
+        events.clear();
+    }
+
+    // Espera até não haver quadro pendente; false se o tempo acabou antes
+    public synchronized boolean awaitIdle(long timeoutMillis) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + timeoutMillis;
+        while (!closed && (running.get() || !events.isEmpty() || overflowed.get())) {
+            long left = deadline - System.currentTimeMillis();
+            if (left <= 0) return false;
+            wait(left);
+        }
+        return true;
+    }
+
+    public long getDroppedEvents() {
+        return dropped.get();
+    }
+
+    public long getFramesRendered() {
+        return frames.get();
+    }
+
+    public long getRenderFailures() {
+        return renderFailures.get();
+    }
+
+    public RuntimeException getLastRenderFailure() {
+        return lastRenderFailure;
+    }
+
+    private void publish(Position highlight) {
+        long sequence = this.sequence.incrementAndGet();
+        lastCommand.accumulateAndGet(sequence, Math::max);
+        offer(sequence, highlight);
+    }
+
+    private void offer(long sequence, Position highlight) {
+        if (closed) return;
+        Event event = new Event(sequence, highlight);
+        if (!events.offer(event)) {
+            dropped.incrementAndGet();
+            if (highlight != null) {
+                droppedHighlight.accumulateAndGet(event, (a, b) -> a == null || b.sequence() > a.sequence() ? b : a);
+            }
+            overflowed.set(true);
+        }
+        if (running.compareAndSet(false, true)) {
+            RENDERERS.execute(this::drain);
+        }
+    }
+
+    private void drain() {
+        List<Event> batch = new ArrayList<>();
+        do {
+            while (!closed && (events.drainTo(batch) > 0 | overflowed.getAndSet(false))) {
+                Event latest = droppedHighlight.getAndSet(null);
+                for (Event event : batch) {
+                    if (event.highlight() != null && (latest == null || event.sequence() > latest.sequence())) {
+                        latest = event;
+                    }
+                }
+                batch.clear();
+                Position highlight = null;
+                if (latest != null && latest.sequence() > shownSequence) {
+                    highlight = latest.highlight();
+                    shownSequence = latest.sequence();
+                }
+                Overlay overlay = nextOverlay();
+                try {
+                    graphicEngine.render(session);
+                    if (highlight != null) {
+                        graphicEngine.highlighPosition(highlight);
+                    }
+                    if (overlay != null) {
+                        graphicEngine.renderOverlay(overlay);
+                    }
+                } catch (RuntimeException e) {
+                    lastRenderFailure = e;
+                    renderFailures.incrementAndGet();
+                }
+                frames.incrementAndGet();
+            }
+            running.set(false);
+            synchronized (this) {
+                notifyAll();
+            }
+            // Um aviso que chegou depois do último drainTo, mas antes de running voltar a false, ficaria sem desenho
+        } while (!closed && (!events.isEmpty() || overflowed.get()) && running.compareAndSet(false, true));
+    }
+
+    // O overlay pendente, se ainda vale; um vazio para apagar o que está na tela depois de um comando; ou null
+    private Overlay nextOverlay() {
+        PendingOverlay pending = overlay.getAndSet(null);
+        long command = lastCommand.get();
+        if (pending != null && pending.sequence() > command) {
+            shownOverlay = pending.sequence();
+            return pending.overlay();
+        }
+        if (shownOverlay != 0 && command > shownOverlay) {
+            shownOverlay = 0;
+            return new Overlay();
+        }
+        return null;
+    }
+}
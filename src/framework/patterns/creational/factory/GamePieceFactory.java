@@ -4,6 +4,7 @@ import framework.core.PieceType;
 import framework.patterns.structural.flyweight.GamePiece;
 import framework.patterns.structural.flyweight.GamePieceProps;
 
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -11,7 +12,7 @@ public abstract class GamePieceFactory {
    protected Map<PieceType, GamePieceProps> gamePieceProMap;
 
    public GamePieceFactory() {
-         gamePieceProMap = Map.of();
+         gamePieceProMap = new HashMap<>();
    }
    protected abstract GamePiece createGamePiece(PieceType type);
    public abstract List<GamePiece> createGamePiece(int qtd, PieceType type);
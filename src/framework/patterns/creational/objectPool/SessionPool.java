@@ -0,0 +1,73 @@
+package framework.patterns.creational.objectPool;
+
+import framework.patterns.structural.facade.GameSession;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/*
+    Partidas novas de um jogo, copiadas (GamePrototype) de um modelo montado uma
+    única vez na posição inicial. O modelo nunca é jogado, só copiado.
+
+    Com capacidade > 0 o pool mantém cópias prontas; quando uma é retirada, uma
+    thread virtual repõe o estoque fora do caminho de quem pediu a partida. Uma
+    falha nessa reposição não chega a ninguém: fica contada e guardada para
+    consulta, e acquire continua copiando o modelo na hora.
+ */
+public class SessionPool {
+    private final GameSession template;
+    private final BlockingQueue<GameSession> ready;
+    private final AtomicBoolean refilling = new AtomicBoolean();
+    private final AtomicLong refillFailures = new AtomicLong();
+    private volatile RuntimeException lastRefillFailure;
+
+    public SessionPool(GameSession template, int capacity) {
+        this.template = template;
+        this.ready = capacity > 0 ? new ArrayBlockingQueue<>(capacity) : null;
+    }
+
+    public GameSession acquire() {
+        GameSession session = ready == null ? null : ready.poll();
+        if (session == null) {
+            session = template.clone();
+        }
+        if (ready != null && refilling.compareAndSet(false, true)) {
+            Thread.ofVirtual().start(this::refillInBackground);
+        }
+        return session;
+    }
+
+    // Enche o pool até a capacidade; pode ser chamado na inicialização para já começar aquecido
+    public void refill() {
+        try {
+            while (ready != null && ready.remainingCapacity() > 0) {
+                if (!ready.offer(template.clone())) break;
+            }
+        } finally {
+            refilling.set(false);
+        }
+    }
+
+    private void refillInBackground() {
+        try {
+            refill();
+        } catch (RuntimeException e) {
+            lastRefillFailure = e;
+            refillFailures.incrementAndGet();
+        }
+    }
+
+    public long getRefillFailures() {
+        return refillFailures.get();
+    }
+
+    public RuntimeException getLastRefillFailure() {
+        return lastRefillFailure;
+    }
+
+    public int available() {
+        return ready == null ? 0 : ready.size();
+    }
+}
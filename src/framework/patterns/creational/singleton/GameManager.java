@@ -1,63 +1,264 @@
 package framework.patterns.creational.singleton;
 
-import framework.core.GameBoard;
+import framework.core.BoardSnapshot;
 import framework.core.GameRegistry;
+import framework.core.Overlay;
 import framework.core.Player;
+import framework.patterns.behavioral.memento.HistoryManager;
+import framework.patterns.concurrency.activeObject.SessionExecutor;
+import framework.patterns.concurrency.pipeline.RenderPipeline;
+import framework.patterns.creational.objectPool.SessionPool;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.creational.abstractFactory.GameAbstractFactory;
+import framework.persistence.JournalRecording;
+import framework.persistence.MoveJournal;
+import framework.persistence.RecoveryFailure;
+import framework.persistence.SessionJournal;
 import framework.patterns.structural.adapter.IGraphicEngineAdapter;
 import framework.patterns.structural.facade.GameSession;
 import framework.patterns.structural.proxy.GameSessionProxy;
 import framework.patterns.structural.proxy.IGameSession;
 
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
+/*
+    Mantém várias partidas ao mesmo tempo, cada uma com sua sessão e seu adaptador
+    gráfico, indexadas pelo id do SessionHandle. As consultas ao mapa não bloqueiam.
+
+    Cada sessão só é alterada pelo seu SessionExecutor: move, undo e passTurn
+    enfileiram o comando e devolvem um CompletableFuture.
+
+    Com enableJournal, cada comando aplicado é anotado no diário da partida pelo
+    próprio executor, na mesma ordem em que foi aplicado, e recover reconstrói
+    as partidas gravadas depois de uma queda.
+
+    Depois de cada comando a sessão só avisa o seu RenderPipeline, que desenha
+    em outra thread; o tempo de um lance não depende da velocidade do motor
+    gráfico (o GraphicEngineImp ainda redesenha só as casas que mudaram).
+ */
 public final class GameManager {
     private static final GameManager INSTANCE = new GameManager();
 
-    private final Map<String, GameAbstractFactory> factories;
-    private IGameSession currentSession;
-    private IGraphicEngineAdapter graphicEngine;
+    private final Map<String, ManagedSession> sessions = new ConcurrentHashMap<>();
+    private final Map<String, SessionPool> pools = new ConcurrentHashMap<>();
+    private final AtomicLong nextId = new AtomicLong();
+    private volatile MoveJournal journal;
+    private volatile List<RecoveryFailure> recoveryFailures = List.of();
+
+    private record ManagedSession(IGameSession session, SessionExecutor executor, RenderPipeline renderer,
+                                  SessionJournal journal, HistoryManager history) {
+    }
 
     private GameManager() {
-        this.factories = GameRegistry.getAll();
     }
 
     public static GameManager getInstance() {
         return INSTANCE;
     }
 
-    public void start(String gameId, String playerId, IGraphicEngineAdapter graphicEngine) {
-        GameAbstractFactory factory = factories.get(gameId);
+    public SessionHandle start(String gameId, String playerId, IGraphicEngineAdapter graphicEngine) {
+        GameSession session = pool(gameId).acquire();
+        SessionHandle handle = new SessionHandle(gameId + "-" + nextId.incrementAndGet(), gameId, playerId);
+        manage(handle, session, graphicEngine);
+        return handle;
+    }
+
+    private void manage(SessionHandle handle, GameSession session, IGraphicEngineAdapter graphicEngine) {
+        MoveJournal journal = this.journal;
+        SessionJournal sessionJournal = journal == null ? null
+                : journal.open(handle.id(), handle.gameId(), handle.playerId(), session);
+        IGameSession proxy = new GameSessionProxy(session, handle.playerId());
+        ManagedSession managed = new ManagedSession(proxy, new SessionExecutor(proxy),
+                new RenderPipeline(proxy, graphicEngine), sessionJournal, session.history());
+        sessions.put(handle.id(), managed);
+        managed.renderer().update();
+    }
+
+    // Partidas iniciadas depois desta chamada passam a ser gravadas em directory
+    public synchronized void enableJournal(Path directory) {
+        if (journal == null) {
+            journal = new MoveJournal(directory);
+        }
+    }
+
+    /*
+        Reconstrói as partidas gravadas no diário com os ids originais; novas
+        partidas continuam a numeração. Uma partida que não pode ser lida ou
+        reproduzida fica de fora e aparece em getRecoveryFailures.
+     */
+    public synchronized List<SessionHandle> recover(Function<SessionHandle, IGraphicEngineAdapter> graphicEngines) {
+        if (journal == null) {
+            throw new IllegalStateException("Diário não habilitado");
+        }
+        List<SessionHandle> handles = new ArrayList<>();
+        List<RecoveryFailure> failures = new ArrayList<>();
+        for (JournalRecording recording : journal.recordings(failures)) {
+            if (sessions.containsKey(recording.getSessionId())) continue;
+            SessionHandle handle = new SessionHandle(recording.getSessionId(), recording.getGameId(), recording.getPlayerId());
+            GameSession session;
+            try {
+                session = pool(handle.gameId()).acquire();
+                recording.replay(session);
+            } catch (RuntimeException e) {
+                failures.add(new RecoveryFailure(handle.id(),
+                        journal.getDirectory().resolve(handle.id() + MoveJournal.JOURNAL), e.toString()));
+                continue;
+            }
+            String id = handle.id();
+            try {
+                long number = Long.parseLong(id.substring(id.lastIndexOf('-') + 1));
+                nextId.accumulateAndGet(number, Math::max);
+            } catch (NumberFormatException ignored) {
+            }
+            manage(handle, session, graphicEngines.apply(handle));
+            handles.add(handle);
+        }
+        recoveryFailures = List.copyOf(failures);
+        return handles;
+    }
+
+    // Partidas que a última chamada de recover deixou de fora, com o motivo
+    public List<RecoveryFailure> getRecoveryFailures() {
+        return recoveryFailures;
+    }
+
+    // Completa depois que tudo o que foi anotado até aqui chegou ao disco
+    public CompletableFuture<Void> syncJournal() {
+        MoveJournal journal = this.journal;
+        return journal == null ? CompletableFuture.completedFuture(null) : journal.sync();
+    }
+
+    // Mantém até capacity partidas do jogo já montadas, prontas para start
+    public void warm(String gameId, int capacity) {
+        // Troca atômica: um start do mesmo jogo espera o pool novo, já cheio, em vez de criar um vazio ao mesmo tempo
+        pools.compute(gameId, (id, previous) -> {
+            SessionPool pool = new SessionPool(template(id), capacity);
+            pool.refill();
+            return pool;
+        });
+    }
+
+    // Sem warm, cada jogo ganha um pool vazio que só copia o modelo
+    private SessionPool pool(String gameId) {
+        SessionPool pool = pools.get(gameId);
+        return pool != null ? pool : pools.computeIfAbsent(gameId, id -> new SessionPool(template(id), 0));
+    }
+
+    private GameSession template(String gameId) {
+        GameAbstractFactory factory = GameRegistry.get(gameId);
         if (factory == null) {
             throw new IllegalArgumentException("Game not found: " + gameId);
         }
+        return new GameSession(factory);
+    }
+
+    // O diário e o histórico em disco da partida são apagados depois dos comandos que ainda estão na fila
+    public void end(String sessionId) {
+        ManagedSession managed = sessions.remove(sessionId);
+        if (managed == null) return;
+        managed.renderer().close();
+        managed.executor().submit(s -> {
+            if (managed.journal() != null) {
+                managed.journal().discard();
+            }
+            managed.history().close();
+            return null;
+        });
+    }
+
+    public CompletableFuture<Void> move(String sessionId, Position from, Position to) {
+        ManagedSession managed = get(sessionId);
+        CompletableFuture<Void> moved = managed.journal() == null ? managed.executor().move(from, to)
+                : managed.executor().submit(s -> {
+                    managed.journal().checkWritable();
+                    s.move(from, to);
+                    record(managed.journal(), j -> j.move(s.board().cellIndex(from), s.board().cellIndex(to)));
+                    return null;
+                });
+        return moved.thenRun(() -> managed.renderer().update(to));
+    }
+
+    public CompletableFuture<Void> undo(String sessionId) {
+        return journaled(get(sessionId), IGameSession::undo, SessionJournal::undo);
+    }
+
+    public CompletableFuture<Void> redo(String sessionId) {
+        return journaled(get(sessionId), IGameSession::redo, SessionJournal::redo);
+    }
+
+    public CompletableFuture<Void> passTurn(String sessionId) {
+        return journaled(get(sessionId), IGameSession::passTurn, SessionJournal::pass);
+    }
 
-        GameSession session = new GameSession(factory);
-        currentSession = new GameSessionProxy(session, playerId);
-        this.graphicEngine = graphicEngine;
-        graphicEngine.render(currentSession);
+    private CompletableFuture<Void> journaled(ManagedSession managed, Consumer<IGameSession> command,
+                                              Consumer<SessionJournal> record) {
+        return managed.executor().<Void>submit(s -> {
+            if (managed.journal() != null) {
+                managed.journal().checkWritable();
+            }
+            command.accept(s);
+            if (managed.journal() != null) {
+                record(managed.journal(), record);
+            }
+            return null;
+        }).thenRun(() -> managed.renderer().update());
+    }
 
+    /*
+        O comando já foi aplicado: uma falha do diário entre checkWritable e o
+        registro não volta para quem pediu o lance, que aconteceu. Ela fica em
+        MoveJournal.getFailure e o próximo comando é recusado antes de alterar a sessão.
+     */
+    private static void record(SessionJournal journal, Consumer<SessionJournal> record) {
+        try {
+            record.accept(journal);
+        } catch (IllegalStateException ignored) {
+        }
     }
 
-    public void move(Position from, Position to) {
-        currentSession.move(from, to);
-        graphicEngine.highlighPosition(to);
+    // Destaques da peça em selected, do último lance e das peças ameaçadas, calculados pelo executor e desenhados juntos
+    public CompletableFuture<Overlay> select(String sessionId, Position selected) {
+        ManagedSession managed = get(sessionId);
+        return managed.executor().submit(s -> {
+            Overlay overlay = new Overlay();
+            s.overlay(selected, overlay);
+            return overlay;
+        }).whenComplete((overlay, error) -> {
+            if (overlay != null) managed.renderer().overlay(overlay);
+        });
     }
 
-    public void undo() {
-        currentSession.undo();
+    // Espera o desenho dos comandos já concluídos (por exemplo, antes de encerrar o programa)
+    public boolean awaitRender(String sessionId, long timeoutMillis) throws InterruptedException {
+        return get(sessionId).renderer().awaitIdle(timeoutMillis);
     }
 
-    public void passTurn() {
-        currentSession.passTurn();
+    // Só snapshots saem daqui: a sessão e o tabuleiro vivos ficam com o executor
+    public BoardSnapshot view(String sessionId) {
+        return get(sessionId).executor().view();
     }
 
-    public GameBoard board() {
-        return currentSession.board();
+    public Player currentPlayer(String sessionId) {
+        return get(sessionId).executor().view().currentPlayer();
     }
 
-    public Player currentPlayer() {
-        return currentSession.currentPlayer();
+    public int sessionCount() {
+        return sessions.size();
+    }
+
+    private ManagedSession get(String sessionId) {
+        ManagedSession managed = sessions.get(sessionId);
+        if (managed == null) {
+            throw new IllegalArgumentException("Session not found: " + sessionId);
+        }
+        return managed;
     }
 }
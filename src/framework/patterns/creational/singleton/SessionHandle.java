@@ -0,0 +1,9 @@
+package framework.patterns.creational.singleton;
+
+// Identifica uma partida aberta no GameManager; todas as operações recebem o id
+public record SessionHandle(
+        String id,
+        String gameId,
+        String playerId
+) {
+}
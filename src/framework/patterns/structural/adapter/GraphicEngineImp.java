@@ -1,36 +1,108 @@
 package framework.patterns.structural.adapter;
 
 import external.GraphicEngine;
-import framework.core.GameBoard;
-import framework.core.Player;
+import framework.core.BoardSnapshot;
+import framework.core.Overlay;
 import framework.patterns.creational.prototype.Position;
-import framework.patterns.structural.flyweight.GamePiece;
 import framework.patterns.structural.proxy.IGameSession;
 
 import java.util.List;
 
+/*
+    O primeiro render desenha tudo; os seguintes comparam o snapshot da sessão
+    com o do último quadro e mandam ao motor só as casas que mudaram (origem e
+    destino de cada peça que andou, casa da peça capturada) mais a casa que
+    estava destacada, que precisa ser redesenhada sem o destaque. Um tabuleiro
+    de outro tamanho volta a ser desenhado por inteiro, também só a partir do
+    snapshot: o tabuleiro da sessão pode estar sendo alterado pelo escritor dela
+    enquanto o quadro é desenhado.
+ */
 public class GraphicEngineImp implements IGraphicEngineAdapter {
     private final GraphicEngine graphicEngine;
 
+    private BoardSnapshot rendered;
+    private int highlighted = -1;
+    // Casas sujas do quadro atual; mark evita repetir uma casa sem limpar o vetor a cada quadro
+    private int[] dirty = new int[0];
+    private int[] mark = new int[0];
+    private int dirtyCount;
+    private int frame;
+
     public GraphicEngineImp(GraphicEngine graphicEngine) {
         this.graphicEngine = graphicEngine;
     }
 
     @Override
-    public void render(IGameSession session) {
-        GameBoard board = session.board();
-        List<Player> players = List.of(session.currentPlayer());
-        List<GamePiece> pieces = board.getPieces().getAll();
+    public synchronized void render(IGameSession session) {
+        BoardSnapshot current = session.snapshot();
+        if (rendered == null || current.getWidth() != rendered.getWidth() || current.getHeight() != rendered.getHeight()
+                || current.pieceCount() != rendered.pieceCount()) {
+            redraw(current);
+            return;
+        }
+        // Mesmo quadro: só a casa destacada, se houver, precisa ser redesenhada
+        if (current == rendered && highlighted < 0) return;
+
+        beginFrame(current.getCellCount());
+        for (int slot = 0; slot < current.pieceCount(); slot++) {
+            if (current.square(slot) != rendered.square(slot)) {
+                markDirty(rendered.square(slot));
+                markDirty(current.square(slot));
+            }
+        }
+        markDirty(highlighted);
+        highlighted = -1;
+        if (dirtyCount > 0) {
+            graphicEngine.renderCells(current, dirty, dirtyCount);
+        }
+        if (current.currentPlayer() != rendered.currentPlayer()) {
+            graphicEngine.renderPlayers(List.of(current.currentPlayer()));
+        }
+        rendered = current;
+    }
+
+    // Desenho completo: início da partida ou mudança de tamanho do tabuleiro
+    public synchronized void redraw(IGameSession session) {
+        redraw(session.snapshot());
+    }
 
-        graphicEngine.renderBoard(board);
-        graphicEngine.renderPlayers(players);
-        graphicEngine.renderPieces(pieces);
+    private void redraw(BoardSnapshot current) {
+        graphicEngine.renderBoard(current);
+        graphicEngine.renderPlayers(List.of(current.currentPlayer()));
+        graphicEngine.renderPieces(current);
+        rendered = current;
+        highlighted = -1;
     }
 
     @Override
-    public void highlighPosition(Position position) {
+    public synchronized void highlighPosition(Position position) {
         if (position != null) {
             graphicEngine.highlightPosition(position.x(), position.y());
+            if (rendered != null && position.x() >= 0 && position.x() < rendered.getWidth()
+                    && position.y() >= 0 && position.y() < rendered.getHeight()) {
+                highlighted = position.x() + position.y() * rendered.getWidth();
+            }
         }
     }
+
+    @Override
+    public synchronized void renderOverlay(Overlay overlay) {
+        graphicEngine.renderOverlay(overlay);
+    }
+
+    private void beginFrame(int cells) {
+        if (mark.length != cells) {
+            dirty = new int[cells];
+            mark = new int[cells];
+            frame = 0;
+        }
+        dirtyCount = 0;
+        frame++;
+    }
+
+    private void markDirty(int square) {
+        if (square < 0 || mark[square] == frame) return;
+        mark[square] = frame;
+        dirty[dirtyCount++] = square;
+    }
 }
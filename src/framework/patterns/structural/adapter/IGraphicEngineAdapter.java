@@ -1,9 +1,11 @@
 package framework.patterns.structural.adapter;
 
+import framework.core.Overlay;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.structural.proxy.IGameSession;
 
 public interface IGraphicEngineAdapter {
     void render(IGameSession session);
     void highlighPosition(Position position);
+    void renderOverlay(Overlay overlay);
 }
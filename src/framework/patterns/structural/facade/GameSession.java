@@ -5,45 +5,144 @@ import framework.patterns.behavioral.iterator.PieceDeck;
 import framework.patterns.behavioral.memento.GameMemento;
 import framework.patterns.behavioral.memento.HistoryManager;
 import framework.patterns.behavioral.memento.Originator;
+import framework.core.BoardSnapshot;
 import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.core.Overlay;
+import framework.core.OverlayKind;
 import framework.core.Player;
+import framework.core.ZobristKeys;
 import framework.patterns.creational.abstractFactory.GameAbstractFactory;
+import framework.patterns.creational.prototype.GamePrototype;
 import framework.patterns.behavioral.command.GameCommand;
 import framework.patterns.behavioral.command.MoveCommand;
 import framework.patterns.behavioral.command.PassTurnCommand;
+import framework.patterns.behavioral.command.UndoRecord;
 import framework.patterns.structural.flyweight.GamePiece;
 import framework.patterns.structural.proxy.IGameSession;
 
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 
-public class GameSession implements Originator<GameMemento>, IGameSession {
+public class GameSession implements Originator<GameMemento>, IGameSession, GamePrototype<GameSession> {
 
+    private final GameAbstractFactory factory;
     private GameBoard gameBoard;
     private List<Player> players;
-    private final HistoryManager historyManager = new HistoryManager();
     private int turn = 0;
-    private GamePiece lastMovedPiece;
-    private Position lastFrom;
-    private Position lastTo;
+
+    // Lances confirmados ficam no histórico como deltas de um long; undo e redo reaplicam o delta
+    private final HistoryManager history;
+    private final UndoRecord historyRecord = new UndoRecord();
+
+    // Pilha pré-alocada dos lances transitórios das buscas (makeMove/unmakeMove)
+    private UndoRecord[] undoRecords = new UndoRecord[0];
+    private int undoSize;
+    private MoveCommand moveCommand;
+    private final PassTurnCommand passTurnCommand = new PassTurnCommand();
+
+    // Rascunhos de overlay, reaproveitados entre chamadas
+    private final MoveBuffer overlayMoves = new MoveBuffer();
+    private final UndoRecord overlayRecord = new UndoRecord();
+
+    // Publicado após cada comando para leitores de outras threads
+    private volatile BoardSnapshot snapshot;
 
     public GameSession(GameAbstractFactory factory) {
+        this(factory, new HistoryManager());
+    }
+
+    public GameSession(GameAbstractFactory factory, HistoryManager history) {
+        this.factory = factory;
+        this.history = history;
         gameBoard = factory.createGameBoard();
         players = factory.createPlayers();
-        List<GamePiece> gamePieces = factory.createGamePieces();
-        gameBoard.setPieces(new PieceDeck(gamePieces));
+        if (gameBoard.getPieces() == null) {
+            gameBoard.setPieces(new PieceDeck(new ArrayList<>(factory.createGamePieces())));
+        }
         distribute(gameBoard.getPieces());
+        publish();
+    }
+
+    private GameSession(GameAbstractFactory factory, GameBoard gameBoard, List<Player> players, int turn, BoardSnapshot source) {
+        this.factory = factory;
+        this.history = new HistoryManager();
+        this.gameBoard = gameBoard;
+        this.players = players;
+        this.turn = turn;
+        this.snapshot = source;
+        publish();
+    }
+
+    // Cópia independente da posição atual (sem histórico), com peças próprias sobre o mesmo terreno
+    @Override
+    public GameSession clone() {
+        PieceDeck deck = gameBoard.getPieces();
+        GamePiece[] bySlot = new GamePiece[deck.size()];
+        List<GamePiece> pieces = new ArrayList<>(bySlot.length);
+        for (int slot = 0; slot < bySlot.length; slot++) {
+            bySlot[slot] = deck.get(slot).clone();
+            pieces.add(bySlot[slot]);
+        }
+        GameBoard board = gameBoard.emptyCopy();
+        board.setPieces(new PieceDeck(pieces));
+
+        List<Player> copies = new ArrayList<>(players.size());
+        for (Player player : players) {
+            Player copy = new Player(player.getId());
+            List<GamePiece> owned = new ArrayList<>(player.getPieces().size());
+            for (GamePiece piece : player.getPieces()) {
+                owned.add(piece.getBoard() == gameBoard ? bySlot[piece.getSlot()] : piece.clone());
+            }
+            copy.setPieces(owned);
+            copies.add(copy);
+        }
+        return new GameSession(factory, board, copies, turn, snapshot);
     }
 
     @Override
     public void move(Position from, Position to) {
-        GameCommand command = new MoveCommand(gameBoard, from, to);
-        executeCommand(command);
+        executeCommand(moveCommand(from, to));
+    }
+
+    /*
+        Lance transitório para buscas: não publica snapshot e deve ser desfeito com
+        unmakeMove antes de a sessão voltar a ser usada normalmente. Fica fora de
+        IGameSession: as buscas usam uma cópia própria (clone), nunca a sessão
+        de uma partida em andamento.
+     */
+    public void makeMove(int from, int to) {
+        applyCommand(moveCommand(gameBoard.getCell(from).getPosition(), gameBoard.getCell(to).getPosition()));
+    }
+
+    public void unmakeMove() {
+        revertCommand();
+    }
+
+    // Passar a vez de forma transitória, também desfeito com unmakeMove
+    public void makePass() {
+        applyCommand(passTurnCommand);
+    }
+
+    // Mesmo critério de generateLegalMoves, para conferir um lance sem gerar todos
+    public boolean isLegalMove(int from, int to) {
+        int cells = gameBoard.getCellCount();
+        if (from < 0 || to < 0 || from >= cells || to >= cells || from == to) return false;
+        GamePiece piece = gameBoard.pieceAt(from);
+        return piece != null && currentPlayer().getPieces().contains(piece) && gameBoard.isLegalTarget(piece, from, to);
+    }
+
+    private MoveCommand moveCommand(Position from, Position to) {
+        if (moveCommand == null) {
+            moveCommand = new MoveCommand(gameBoard, from, to);
+        }
+        return moveCommand.retarget(from, to);
     }
 
     @Override
     public void passTurn() {
-        GameCommand command = new PassTurnCommand();
-        executeCommand(command);
+        executeCommand(passTurnCommand);
     }
 
     @Override
@@ -51,6 +150,16 @@ public class GameSession implements Originator<GameMemento>, IGameSession {
         undoLastCommand();
     }
 
+    @Override
+    public void redo() {
+        redoLastCommand();
+    }
+
+    @Override
+    public BoardSnapshot snapshot() {
+        return snapshot;
+    }
+
     @Override
     public GameBoard board() {
         return gameBoard;
@@ -61,47 +170,241 @@ public class GameSession implements Originator<GameMemento>, IGameSession {
         return players.get(turn);
     }
 
-    public void executeCommand(GameCommand command) {
-        if (command instanceof MoveCommand move) {
-            this.lastFrom = move.getFrom();
-            this.lastTo = move.getTo();
-            this.lastMovedPiece = board().getPieceAt(lastFrom).orElseThrow();
-        } else {
-            this.lastFrom = this.lastTo = null;
-            this.lastMovedPiece = null;
+    // Peças (tipo, dono, casa) do tabuleiro mais o jogador da vez
+    @Override
+    public long zobristKey() {
+        return gameBoard.getZobristKey() ^ ZobristKeys.turn(turn);
+    }
+
+    @Override
+    public int generateLegalMoves(Player player, MoveBuffer moves) {
+        moves.clear();
+        List<GamePiece> pieces = player.getPieces();
+        for (int i = 0; i < pieces.size(); i++) {
+            addLegalTargets(pieces.get(i), moves);
+        }
+        return moves.size();
+    }
+
+    @Override
+    public int legalTargets(Position from, MoveBuffer moves) {
+        moves.clear();
+        GamePiece piece = gameBoard.pieceAt(gameBoard.cellIndex(from));
+        if (piece != null) {
+            addLegalTargets(piece, moves);
+        }
+        return moves.size();
+    }
+
+    /*
+        Todos os destaques de uma vez: destinos da peça em selected (REACHABLE, ou
+        CAPTURE se há peça na casa), origem e destino do último lance e as peças do
+        jogador da vez que alguma peça adversária pode capturar (THREATENED).
+        Destinos e ameaças saem do gerador de lances do tabuleiro, um passe por peça.
+     */
+    @Override
+    public void overlay(Position selected, Overlay overlay) {
+        overlay.reset(gameBoard.getWidth(), gameBoard.getHeight());
+        MoveBuffer moves = overlayMoves;
+        moves.clear();
+        GamePiece piece = gameBoard.pieceAt(gameBoard.cellIndex(selected));
+        if (piece != null) {
+            addLegalTargets(piece, moves);
+            for (int i = 0; i < moves.size(); i++) {
+                int to = moves.to(i);
+                overlay.add(gameBoard.pieceAt(to) != null ? OverlayKind.CAPTURE : OverlayKind.REACHABLE, to);
+            }
+        }
+
+        if (history.canUndo()) {
+            UndoRecord record = overlayRecord;
+            record.unpack(history.peek(), null);
+            if (record.getPieceSlot() >= 0) {
+                overlay.add(OverlayKind.LAST_MOVE, record.getFrom());
+                overlay.add(OverlayKind.LAST_MOVE, record.getTo());
+            }
         }
 
-        historyManager.backup(this);
-        command.execute();
+        moves.clear();
+        for (Player opponent : players) {
+            if (opponent == currentPlayer()) continue;
+            List<GamePiece> attackers = opponent.getPieces();
+            for (int i = 0; i < attackers.size(); i++) {
+                addLegalTargets(attackers.get(i), moves);
+            }
+        }
+        List<GamePiece> own = currentPlayer().getPieces();
+        for (int i = 0; i < moves.size(); i++) {
+            int to = moves.to(i);
+            GamePiece target = gameBoard.pieceAt(to);
+            if (target != null && own.contains(target)) {
+                overlay.add(OverlayKind.THREATENED, to);
+            }
+        }
+    }
+
+    // O tabuleiro decide como gerar (por padrão, cada casa contra a cadeia de regras da peça, sem passar por exceções)
+    private void addLegalTargets(GamePiece piece, MoveBuffer moves) {
+        if (piece.getBoard() != gameBoard) return;
+        int from = gameBoard.cellIndex(piece.getPosition());
+        if (from < 0) return;
+        gameBoard.addLegalTargets(piece, from, moves);
+    }
+
+    /*
+        O histórico guarda só o delta anotado no UndoRecord (peças movida e capturada,
+        vez anterior). Um comando que não anota o que mudou não poderia ser desfeito
+        pelo delta: ele é revertido na hora e recusado. O mesmo vale para um comando
+        que move peça de outro jogador, com o critério de isLegalMove.
+     */
+    public void executeCommand(GameCommand command) {
+        UndoRecord record = historyRecord;
+        record.reset(command, turn);
+        command.apply(record);
+        if (!record.isDescribed()) {
+            command.revert(record);
+            throw new IllegalArgumentException(command.getClass().getName()
+                    + " não anota o que alterou no UndoRecord e não pode entrar no histórico");
+        }
+        if (record.getPieceSlot() >= 0
+                && !currentPlayer().getPieces().contains(gameBoard.pieceInSlot(record.getPieceSlot()))) {
+            command.revert(record);
+            throw new IllegalArgumentException("A peça não pertence ao jogador da vez: " + currentPlayer().getId());
+        }
         turn = (turn + 1) % players.size();
+        history.backup(this);
+        publish(record);
     }
 
     public void undoLastCommand() {
-        historyManager.undo(this);
+        history.undo(this);
+    }
+
+    // Reaplica o último lance desfeito sem validar de novo: ele já foi validado quando foi jogado
+    public void redoLastCommand() {
+        if (!history.canRedo()) return;
+        UndoRecord record = historyRecord;
+        record.unpack(history.redo(), null);
+        if (record.getCapturedSlot() >= 0) {
+            gameBoard.pieceInSlot(record.getCapturedSlot()).setPosition(null);
+        }
+        if (record.getPieceSlot() >= 0) {
+            gameBoard.pieceInSlot(record.getPieceSlot()).setPosition(gameBoard.getCell(record.getTo()).getPosition());
+        }
+        turn = (record.getPreviousTurn() + 1) % players.size();
+        publish(record);
+    }
+
+    // Casas por slot do deck (-1 = capturada); para recuperar partidas gravadas, o histórico não é restaurado
+    public void load(int turn, int[] squares) {
+        if (squares.length != gameBoard.getPieces().size()) {
+            throw new IllegalArgumentException("Esperadas " + gameBoard.getPieces().size() + " peças, recebidas " + squares.length);
+        }
+        // Primeiro tira as peças que mudam de casa, para nenhuma ocupar a casa de outra que ainda não saiu
+        for (int slot = 0; slot < squares.length; slot++) {
+            GamePiece piece = gameBoard.pieceInSlot(slot);
+            if (gameBoard.cellIndex(piece.getPosition()) != squares[slot]) {
+                piece.setPosition(null);
+            }
+        }
+        for (int slot = 0; slot < squares.length; slot++) {
+            GamePiece piece = gameBoard.pieceInSlot(slot);
+            if (squares[slot] >= 0 && piece.getPosition() == null) {
+                piece.setPosition(gameBoard.getCell(squares[slot]).getPosition());
+            }
+        }
+        this.turn = turn;
+        publish();
+    }
+
+    public int turn() {
+        return turn;
+    }
+
+    public List<Player> players() {
+        return players;
+    }
+
+    public HistoryManager history() {
+        return history;
+    }
+
+    // Só empilha o registro se o comando foi aplicado: um lance inválido não deixa rastro
+    private UndoRecord applyCommand(GameCommand command) {
+        if (undoSize == undoRecords.length) {
+            growUndoRecords();
+        }
+        UndoRecord record = undoRecords[undoSize];
+        record.reset(command, turn);
+        command.apply(record);
+        undoSize++;
+        turn = (turn + 1) % players.size();
+        return record;
+    }
+
+    private UndoRecord revertCommand() {
+        if (undoSize == 0) return null;
+        UndoRecord record = undoRecords[undoSize - 1];
+        record.getCommand().revert(record);
+        undoSize--;
+        turn = record.getPreviousTurn();
+        return record;
+    }
+
+    // Lê os campos direto, sem métodos sobrescrevíveis: também roda nos construtores
+    private void publish() {
+        snapshot = BoardSnapshot.of(gameBoard, players.get(turn), turn, gameBoard.getZobristKey() ^ ZobristKeys.turn(turn), snapshot);
+    }
+
+    // Sem slots anotados (passar a vez ou comandos que não descrevem o que mudaram) o snapshot é refeito inteiro
+    private void publish(UndoRecord record) {
+        if (record.getPieceSlot() < 0 && record.getCapturedSlot() < 0) {
+            publish();
+            return;
+        }
+        snapshot = snapshot.next(gameBoard, record.getPieceSlot(), record.getCapturedSlot(), currentPlayer(), turn, zobristKey());
+    }
+
+    private void growUndoRecords() {
+        UndoRecord[] grown = Arrays.copyOf(undoRecords, Math.max(64, undoRecords.length * 2));
+        for (int i = undoRecords.length; i < grown.length; i++) {
+            grown[i] = new UndoRecord();
+        }
+        undoRecords = grown;
     }
 
     private void distribute(PieceDeck deck) {
         int per = deck.size() / players.size();
         for (int i = 0; i < players.size(); i++) {
-            players.get(i).setPieces(deck.getAll().subList(i * per, (i + 1) * per));
+            players.get(i).setPieces(new ArrayList<>(deck.getAll().subList(i * per, (i + 1) * per)));
         }
     }
 
+    // Memento do comando que executeCommand acabou de aplicar: o delta anotado no UndoRecord
     @Override
     public GameMemento saveState() {
-        if (lastMovedPiece == null) return null;
-        return new GameMemento(
-                lastMovedPiece,
-                lastFrom.clone(),
-                lastTo.clone(),
-                turn
-        );
+        return new GameMemento(historyRecord.pack());
     }
 
+    /*
+        Desfaz o delta do memento. Só vale para a entrada que o HistoryManager
+        acabou de desfazer (a que está no cursor); qualquer outro memento deixaria
+        o tabuleiro e o histórico diferentes, então é recusado.
+     */
     @Override
     public void restoreState(GameMemento memento) {
-        if (memento == null || memento.piece() == null) return;
-        memento.piece().setPosition(memento.previous());
-        this.turn = memento.turn();
+        if (!history.canRedo() || history.get(history.cursor()) != memento.delta()) {
+            throw new IllegalStateException("O memento não é o lance que o histórico acabou de desfazer");
+        }
+        UndoRecord record = historyRecord;
+        record.unpack(memento.delta(), null);
+        if (record.getPieceSlot() >= 0) {
+            gameBoard.pieceInSlot(record.getPieceSlot()).setPosition(gameBoard.getCell(record.getFrom()).getPosition());
+        }
+        if (record.getCapturedSlot() >= 0) {
+            gameBoard.pieceInSlot(record.getCapturedSlot()).setPosition(gameBoard.getCell(record.getTo()).getPosition());
+        }
+        turn = record.getPreviousTurn();
+        publish(record);
     }
 }
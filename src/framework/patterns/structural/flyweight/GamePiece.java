@@ -18,14 +18,25 @@ public class GamePiece extends BasicGamePiece implements GamePrototype<GamePiece
 
     @Override
     public void move(Position locale, GameBoard board) throws InvalidMovementException {
-        if (getPosition() != null) {
+        validateMove(locale, board);
+        GamePiece captured = board.pieceAt(locale.x(), locale.y());
+        if (captured != null) {
+            captured.setPosition(null);
+        }
+        setPosition(locale);
+    }
+
+    public void validateMove(Position locale, GameBoard board) throws InvalidMovementException {
+        if (getPosition() == null) {
             throw new InvalidMovementException("A peça ainda não foi instanciada");
         }
-        if(props.moveChain().move(getPosition(), locale, board)) {
-            return;
+        if (!canMove(locale, board)) {
+            throw new InvalidMovementException("A peça " + props.type().getName() + " não pode se mover para " + locale.toString());
         }
+    }
 
-        throw new InvalidMovementException("A peça" + props.type().getName() + " não pode se mover para " + locale.toString());
+    public boolean canMove(Position locale, GameBoard board) {
+        return getPosition() != null && props.moveChain().move(getPosition(), locale, board);
     }
 
     public GamePieceProps getProps() {
@@ -34,10 +45,12 @@ public class GamePiece extends BasicGamePiece implements GamePrototype<GamePiece
 
     @Override
     public GamePiece clone() {
+        // Position é imutável; uma peça capturada continua sem posição na cópia
         GamePiece clone = new GamePiece(this.props);
-        if (this.getPosition() != null) {
-            clone.setPosition(new Position(this.getPosition().x(), this.getPosition().y()));
+        if (this.getInitialPosition() != null) {
+            clone.setPosition(this.getInitialPosition());
         }
+        clone.setPosition(this.getPosition());
         return clone;
     }
 
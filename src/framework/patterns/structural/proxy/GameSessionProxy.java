@@ -2,7 +2,10 @@ package framework.patterns.structural.proxy;
 
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.structural.facade.GameSession;
+import framework.core.BoardSnapshot;
 import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.core.Overlay;
 import framework.core.Player;
 
 public class GameSessionProxy implements IGameSession {
@@ -33,6 +36,12 @@ public class GameSessionProxy implements IGameSession {
         realSession.undo();
     }
 
+    @Override
+    public void redo() {
+        validateAccess();
+        realSession.redo();
+    }
+
     @Override
     public void passTurn() {
         validateAccess();
@@ -44,8 +53,33 @@ public class GameSessionProxy implements IGameSession {
         return realSession.board();
     }
 
+    @Override
+    public BoardSnapshot snapshot() {
+        return realSession.snapshot();
+    }
+
     @Override
     public Player currentPlayer() {
         return realSession.currentPlayer();
     }
+
+    @Override
+    public long zobristKey() {
+        return realSession.zobristKey();
+    }
+
+    @Override
+    public int generateLegalMoves(Player player, MoveBuffer moves) {
+        return realSession.generateLegalMoves(player, moves);
+    }
+
+    @Override
+    public int legalTargets(Position from, MoveBuffer moves) {
+        return realSession.legalTargets(from, moves);
+    }
+
+    @Override
+    public void overlay(Position selected, Overlay overlay) {
+        realSession.overlay(selected, overlay);
+    }
 }
@@ -1,12 +1,21 @@
 package framework.patterns.structural.proxy;
 import framework.patterns.creational.prototype.Position;
+import framework.core.BoardSnapshot;
 import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.core.Overlay;
 import framework.core.Player;
 
 public interface IGameSession {
     void move(Position from, Position to);
     void undo();
+    void redo();
     void passTurn();
     GameBoard board();
+    BoardSnapshot snapshot();
     Player currentPlayer();
+    long zobristKey();
+    int generateLegalMoves(Player player, MoveBuffer moves);
+    int legalTargets(Position from, MoveBuffer moves);
+    void overlay(Position selected, Overlay overlay);
 }
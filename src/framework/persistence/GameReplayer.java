@@ -0,0 +1,245 @@
+package framework.persistence;
+
+import framework.core.GameRegistry;
+import framework.patterns.creational.abstractFactory.GameAbstractFactory;
+import framework.patterns.structural.facade.GameSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/*
+    Revalida partidas gravadas no formato do MoveJournal (por exemplo, um arquivo
+    de partidas encerradas depois de uma correção nas regras).
+
+    Cada thread lê seus arquivos aos pedaços num buffer próprio e reproduz os
+    registros com makeMove/makePass/unmakeMove sobre uma sessão por jogo, sem
+    histórico, snapshots nem renderização. Cada lance é conferido com
+    isLegalMove antes de ser aplicado; no fim a sessão é desfeita até a posição
+    inicial e reaproveitada na próxima partida do mesmo jogo. A foto (.snapshot)
+    é ignorada: o diário completo é sempre reproduzido desde o início.
+
+    Os arquivos são lidos do iterador sob demanda, então o diretório nunca é
+    carregado inteiro em memória. Os arquivos não são alterados.
+ */
+public class GameReplayer {
+    private static final int BUFFER_BYTES = 64 * 1024;
+    private static final int PASS = -1;
+
+    private final int threads;
+
+    public GameReplayer() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    public GameReplayer(int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("É preciso ao menos uma thread");
+        }
+        this.threads = threads;
+    }
+
+    // Todos os *.journal do diretório
+    public ReplayReport replay(Path directory) {
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + MoveJournal.JOURNAL)) {
+            return replay(files);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao listar " + directory, e);
+        }
+    }
+
+    public ReplayReport replay(Iterable<Path> files) {
+        long start = System.nanoTime();
+        Iterator<Path> next = files.iterator();
+        List<Worker> workers = new ArrayList<>(threads);
+        List<Future<?>> running = new ArrayList<>(threads);
+        try (ExecutorService executor = Executors.newFixedThreadPool(threads)) {
+            for (int i = 0; i < threads; i++) {
+                Worker worker = new Worker();
+                workers.add(worker);
+                running.add(executor.submit(() -> worker.run(next)));
+            }
+            for (Future<?> future : running) {
+                future.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Reprodução interrompida", e);
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Falha na reprodução", e.getCause());
+        }
+
+        long games = 0, plies = 0;
+        List<ReplayReport.Failure> failures = new ArrayList<>();
+        for (Worker worker : workers) {
+            games += worker.games;
+            plies += worker.plies;
+            failures.addAll(worker.failures);
+        }
+        return new ReplayReport(games, plies, failures, System.nanoTime() - start);
+    }
+
+    private static Path take(Iterator<Path> files) {
+        synchronized (files) {
+            return files.hasNext() ? files.next() : null;
+        }
+    }
+
+    private static final class Worker {
+        private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_BYTES);
+        private final Map<String, GameSession> sessions = new HashMap<>();
+        private final List<ReplayReport.Failure> failures = new ArrayList<>();
+        // Lances aplicados em [0, applied) e desfeitos, prontos para REDO, em [applied, played)
+        private int[] moves = new int[256];
+        private int applied, played;
+        private long games, plies;
+
+        void run(Iterator<Path> files) {
+            for (Path file = take(files); file != null; file = take(files)) {
+                games++;
+                try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                    replay(file, channel);
+                } catch (IOException e) {
+                    failures.add(new ReplayReport.Failure(file, null, 0, "Falha de leitura: " + e.getMessage()));
+                }
+            }
+        }
+
+        private void replay(Path file, FileChannel channel) throws IOException {
+            buffer.clear().flip();
+            if (!fill(channel, 4 + 1 + 2) || buffer.getInt() != MoveJournal.MAGIC || buffer.get() != MoveJournal.VERSION) {
+                failures.add(new ReplayReport.Failure(file, null, 0, "Cabeçalho inválido"));
+                return;
+            }
+            String gameId = string(channel);
+            String playerId = string(channel);
+            if (gameId == null || playerId == null) {
+                failures.add(new ReplayReport.Failure(file, gameId, 0, "Cabeçalho inválido"));
+                return;
+            }
+            GameSession session = session(gameId);
+            if (session == null) {
+                failures.add(new ReplayReport.Failure(file, gameId, 0, "Game not found: " + gameId));
+                return;
+            }
+
+            applied = 0;
+            played = 0;
+            try {
+                long record = 0;
+                while (fill(channel, MoveJournal.RECORD_BYTES)) {
+                    record++;
+                    String error = apply(session, buffer.get(), buffer.getShort(), buffer.getShort());
+                    if (error != null) {
+                        failures.add(new ReplayReport.Failure(file, gameId, record, error));
+                        return;
+                    }
+                }
+                if (buffer.hasRemaining()) {
+                    failures.add(new ReplayReport.Failure(file, gameId, record + 1, "Registro incompleto no fim do arquivo"));
+                }
+            } finally {
+                while (applied > 0) {
+                    session.unmakeMove();
+                    applied--;
+                }
+            }
+        }
+
+        // Devolve a razão da rejeição, ou null se o registro foi aplicado
+        private String apply(GameSession session, byte type, int from, int to) {
+            switch (type) {
+                case MoveJournal.MOVE -> {
+                    if (!session.isLegalMove(from, to)) {
+                        return "Lance ilegal de " + from + " para " + to;
+                    }
+                    session.makeMove(from, to);
+                    push(from | to << 16);
+                }
+                case MoveJournal.PASS -> {
+                    session.makePass();
+                    push(PASS);
+                }
+                case MoveJournal.UNDO -> {
+                    if (applied > 0) {
+                        session.unmakeMove();
+                        applied--;
+                    }
+                }
+                case MoveJournal.REDO -> {
+                    if (applied < played) {
+                        int move = moves[applied++];
+                        if (move == PASS) {
+                            session.makePass();
+                        } else {
+                            session.makeMove(move & 0xFFFF, move >>> 16);
+                        }
+                    }
+                }
+                default -> {
+                    return "Registro desconhecido: " + type;
+                }
+            }
+            plies++;
+            return null;
+        }
+
+        private void push(int move) {
+            if (applied == moves.length) {
+                moves = Arrays.copyOf(moves, moves.length * 2);
+            }
+            moves[applied++] = move;
+            played = applied;
+        }
+
+        private GameSession session(String gameId) {
+            GameSession session = sessions.get(gameId);
+            if (session == null) {
+                GameAbstractFactory factory = GameRegistry.get(gameId);
+                if (factory == null) return null;
+                session = new GameSession(factory);
+                sessions.put(gameId, session);
+            }
+            return session;
+        }
+
+        private String string(FileChannel channel) throws IOException {
+            if (!fill(channel, 2)) return null;
+            int length = buffer.getShort() & 0xFFFF;
+            if (length > buffer.capacity() || !fill(channel, length)) return null;
+            byte[] value = new byte[length];
+            buffer.get(value);
+            return new String(value, StandardCharsets.UTF_8);
+        }
+
+        // Garante ao menos bytes disponíveis no buffer; false se o arquivo acabou antes
+        private boolean fill(FileChannel channel, int bytes) throws IOException {
+            if (buffer.remaining() >= bytes) return true;
+            buffer.compact();
+            try {
+                while (buffer.position() < bytes) {
+                    if (channel.read(buffer) < 0) break;
+                }
+            } finally {
+                buffer.flip();
+            }
+            return buffer.remaining() >= bytes;
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package framework.persistence;
+
+import framework.patterns.structural.facade.GameSession;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/*
+    Partida lida do disco: a foto mais recente (se houver) e os registros do
+    diário gravados depois dela. replay leva uma sessão nova do mesmo jogo até
+    o último registro.
+ */
+public final class JournalRecording {
+    private final String sessionId, gameId, playerId;
+    private final ByteBuffer state;
+    private final ByteBuffer records;
+
+    private JournalRecording(String sessionId, String gameId, String playerId, ByteBuffer state, ByteBuffer records) {
+        this.sessionId = sessionId;
+        this.gameId = gameId;
+        this.playerId = playerId;
+        this.state = state;
+        this.records = records;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    public String getGameId() {
+        return gameId;
+    }
+
+    public String getPlayerId() {
+        return playerId;
+    }
+
+    public int getRecordCount() {
+        return records.remaining() / MoveJournal.RECORD_BYTES;
+    }
+
+    public void replay(GameSession session) {
+        if (state != null) {
+            new SessionCodec().decode(state.duplicate(), session);
+        }
+        ByteBuffer in = records.duplicate();
+        while (in.hasRemaining()) {
+            byte type = in.get();
+            int from = in.getShort();
+            int to = in.getShort();
+            switch (type) {
+                case MoveJournal.MOVE -> session.move(session.board().getCell(from).getPosition(),
+                        session.board().getCell(to).getPosition());
+                case MoveJournal.PASS -> session.passTurn();
+                case MoveJournal.UNDO -> session.undo();
+                case MoveJournal.REDO -> session.redo();
+                default -> throw new IllegalStateException("Registro desconhecido no diário de " + sessionId + ": " + type);
+            }
+        }
+    }
+
+    /*
+        Um registro final incompleto é cortado do arquivo, para o diário poder
+        continuar de onde parou. Uma foto que não corresponde ao diário (por
+        exemplo, de uma gravação antiga que apontava além do que chegou ao disco)
+        é apagada e o diário é reproduzido desde o início: deixá-la ali faria com
+        que, depois de novos registros, ela parecesse válida.
+     */
+    static JournalRecording read(Path journal, Path snapshot, String sessionId) throws IOException {
+        ByteBuffer bytes = ByteBuffer.wrap(Files.readAllBytes(journal));
+        if (bytes.remaining() < 5 || bytes.getInt() != MoveJournal.MAGIC || bytes.get() != MoveJournal.VERSION) {
+            throw new IOException("Diário inválido: " + journal);
+        }
+        String gameId = string(bytes);
+        String playerId = string(bytes);
+        int start = bytes.position();
+
+        ByteBuffer state = null;
+        if (Files.exists(snapshot)) {
+            ByteBuffer in = ByteBuffer.wrap(Files.readAllBytes(snapshot));
+            long position = in.remaining() < 4 + 1 + 8 || in.getInt() != MoveJournal.MAGIC
+                    || in.get() != MoveJournal.VERSION ? -1 : in.getLong();
+            if (position < start || position > bytes.limit()) {
+                Files.delete(snapshot);
+            } else {
+                state = in.slice();
+                start = (int) position;
+            }
+        }
+
+        int complete = (bytes.limit() - start) / MoveJournal.RECORD_BYTES * MoveJournal.RECORD_BYTES;
+        if (start + complete < bytes.limit()) {
+            try (FileChannel channel = FileChannel.open(journal, StandardOpenOption.WRITE)) {
+                channel.truncate(start + complete);
+            }
+        }
+        ByteBuffer records = bytes.position(start).limit(start + complete).slice();
+        return new JournalRecording(sessionId, gameId, playerId, state, records);
+    }
+
+    private static String string(ByteBuffer bytes) {
+        byte[] value = new byte[bytes.getShort()];
+        bytes.get(value);
+        return new String(value, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,309 @@
+package framework.persistence;
+
+import framework.patterns.structural.facade.GameSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+
+/*
+    Diário de lances só de acréscimo, um arquivo por partida (<id>.journal), com
+    fotos periódicas do estado (<id>.snapshot) para a recuperação não precisar
+    reaplicar a partida inteira.
+
+    Quem joga só enfileira o registro; uma thread gravadora junta tudo o que
+    chegou, grava cada arquivo de uma vez e faz um único fsync por arquivo por
+    lote (group commit). sync() devolve um futuro completado depois do próximo fsync.
+
+    Diário: cabeçalho (MAGIC, versão, id do jogo, id do jogador) seguido de
+    registros de 5 bytes: tipo + origem e destino (2 bytes cada).
+    Foto: MAGIC, versão, posição do diário que ela cobre e o estado da partida
+    no formato do SessionCodec. O estado é copiado no escritor da sessão e
+    codificado na thread do diário. Do histórico vão só os últimos
+    snapshotInterval lances desfazíveis (e refazíveis): entre uma foto e a
+    seguinte há no máximo esse número de registros, então os UNDO e REDO
+    reaplicados nunca passam disso. Uma partida recuperada só desfaz até ali.
+ */
+public class MoveJournal implements AutoCloseable {
+    public static final String JOURNAL = ".journal", SNAPSHOT = ".snapshot";
+    public static final byte MOVE = 1, PASS = 2, UNDO = 3, REDO = 4;
+    static final int MAGIC = 0x4A524E4C;
+    static final byte VERSION = 1;
+    static final int RECORD_BYTES = 5;
+
+    private static final byte CLOSE = -1, DISCARD = -2;
+
+    private record Entry(SessionJournal journal, byte type, int from, int to, SessionCodec.Capture snapshot,
+                         CompletableFuture<Void> synced) {
+    }
+
+    private static final Entry STOP = new Entry(null, (byte) 0, 0, 0, null, null);
+
+    private final Path directory;
+    private final int snapshotInterval;
+    private final BlockingQueue<Entry> queue = new LinkedBlockingQueue<>();
+    private final Thread writer;
+    private volatile boolean closed;
+    private volatile RuntimeException failure;
+
+    public MoveJournal(Path directory) {
+        this(directory, 1024);
+    }
+
+    public MoveJournal(Path directory, int snapshotInterval) {
+        this.directory = directory;
+        this.snapshotInterval = snapshotInterval;
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível criar " + directory, e);
+        }
+        this.writer = Thread.ofPlatform().daemon().name("move-journal").start(this::writeLoop);
+    }
+
+    // Abre (ou continua) o diário da partida; o cabeçalho identifica jogo e jogador
+    public SessionJournal open(String sessionId, String gameId, String playerId, GameSession session) {
+        Path path = directory.resolve(sessionId + JOURNAL);
+        try {
+            FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+            if (channel.size() == 0) {
+                byte[] game = gameId.getBytes(StandardCharsets.UTF_8);
+                byte[] player = playerId.getBytes(StandardCharsets.UTF_8);
+                ByteBuffer header = ByteBuffer.allocate(4 + 1 + 2 + game.length + 2 + player.length);
+                header.putInt(MAGIC).put(VERSION)
+                        .putShort((short) game.length).put(game)
+                        .putShort((short) player.length).put(player)
+                        .flip();
+                while (header.hasRemaining()) {
+                    channel.write(header);
+                }
+            }
+            channel.position(channel.size());
+            return new SessionJournal(this, sessionId, gameId, channel, session);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o diário de " + sessionId, e);
+        }
+    }
+
+    /*
+        Lê os diários do diretório; um registro final incompleto (queda no meio da
+        gravação) é descartado. Um diário ilegível não impede os outros: vai para
+        failures com o motivo.
+     */
+    public List<JournalRecording> recordings(List<RecoveryFailure> failures) {
+        List<JournalRecording> recordings = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*" + JOURNAL)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String sessionId = name.substring(0, name.length() - JOURNAL.length());
+                try {
+                    recordings.add(JournalRecording.read(file, directory.resolve(sessionId + SNAPSHOT), sessionId));
+                } catch (IOException | RuntimeException e) {
+                    failures.add(new RecoveryFailure(sessionId, file, e.toString()));
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler os diários de " + directory, e);
+        }
+        return recordings;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    // Falha de gravação que parou o diário, ou null
+    public RuntimeException getFailure() {
+        return failure;
+    }
+
+    public CompletableFuture<Void> sync() {
+        CompletableFuture<Void> synced = new CompletableFuture<>();
+        enqueue(new Entry(null, (byte) 0, 0, 0, null, synced));
+        return synced;
+    }
+
+    void append(SessionJournal journal, byte type, int from, int to, long records) {
+        enqueue(new Entry(journal, type, from, to, null, null));
+        if (records % snapshotInterval == 0) {
+            enqueue(new Entry(journal, (byte) 0, 0, 0, journal.capture(snapshotInterval), null));
+        }
+    }
+
+    void close(SessionJournal journal) {
+        enqueue(new Entry(journal, CLOSE, 0, 0, null, null));
+    }
+
+    void discard(SessionJournal journal) {
+        enqueue(new Entry(journal, DISCARD, 0, 0, null, null));
+    }
+
+    /*
+        A thread gravadora marca failure (ou closed já está marcado) antes de esvaziar
+        a fila ao sair. Conferir de novo depois de add garante que o registro ou foi
+        visto por ela ou é retirado aqui: nenhum sync fica esperando para sempre.
+     */
+    private void enqueue(Entry entry) {
+        checkOpen();
+        queue.add(entry);
+        if ((failure != null || closed) && queue.remove(entry)) {
+            checkOpen();
+        }
+    }
+
+    void checkOpen() {
+        if (failure != null) {
+            throw new IllegalStateException("Diário parou após uma falha de gravação", failure);
+        }
+        if (closed) {
+            throw new IllegalStateException("Diário fechado");
+        }
+    }
+
+    // O que sobrou na fila não vai ser gravado; quem espera um sync recebe o motivo
+    private void abandonQueue() {
+        RuntimeException reason = failure != null ? failure : new IllegalStateException("Diário fechado");
+        List<Entry> left = new ArrayList<>();
+        queue.drainTo(left);
+        for (Entry entry : left) {
+            if (entry.synced() != null) {
+                entry.synced().completeExceptionally(reason);
+            }
+        }
+    }
+
+    private void writeLoop() {
+        try {
+            writeBatches();
+        } finally {
+            abandonQueue();
+        }
+    }
+
+    private void writeBatches() {
+        List<Entry> batch = new ArrayList<>();
+        Set<SessionJournal> touched = new HashSet<>();
+        List<CompletableFuture<Void>> waiting = new ArrayList<>();
+        boolean stop = false;
+        while (!stop) {
+            try {
+                batch.add(queue.take());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                failure = new IllegalStateException("Thread do diário interrompida", e);
+                return;
+            }
+            queue.drainTo(batch);
+
+            try {
+                for (Entry entry : batch) {
+                    SessionJournal journal = entry.journal();
+                    if (entry == STOP) {
+                        stop = true;
+                    } else if (entry.synced() != null) {
+                        waiting.add(entry.synced());
+                    } else if (!journal.isOpen()) {
+                        continue;
+                    } else if (entry.snapshot() != null) {
+                        // A foto só aponta para registros que já estão no disco
+                        journal.flush();
+                        journal.force();
+                        writeSnapshot(journal, entry.snapshot());
+                    } else if (entry.type() == CLOSE) {
+                        journal.flush();
+                        journal.force();
+                        journal.closeChannel();
+                        touched.remove(journal);
+                    } else if (entry.type() == DISCARD) {
+                        journal.closeChannel();
+                        touched.remove(journal);
+                        delete(journal.getSessionId());
+                    } else {
+                        journal.buffer(entry.type(), entry.from(), entry.to());
+                        touched.add(journal);
+                    }
+                }
+                for (SessionJournal journal : touched) {
+                    journal.flush();
+                    journal.force();
+                }
+                for (CompletableFuture<Void> synced : waiting) {
+                    synced.complete(null);
+                }
+            } catch (RuntimeException e) {
+                failure = e;
+                for (Entry entry : batch) {
+                    if (entry.synced() != null) {
+                        entry.synced().completeExceptionally(e);
+                    }
+                }
+                return;
+            } finally {
+                batch.clear();
+                touched.clear();
+                waiting.clear();
+            }
+        }
+    }
+
+    // Grava num arquivo temporário e troca de uma vez, para nunca deixar uma foto pela metade
+    private void writeSnapshot(SessionJournal journal, SessionCodec.Capture capture) {
+        ByteBuffer state = ByteBuffer.allocate(SessionCodec.size(capture));
+        SessionCodec.encode(capture, state);
+        state.flip();
+        ByteBuffer header = ByteBuffer.allocate(4 + 1 + 8);
+        header.putInt(MAGIC).put(VERSION).putLong(journal.position()).flip();
+        ByteBuffer[] bytes = {header, state};
+
+        Path target = directory.resolve(journal.getSessionId() + SNAPSHOT);
+        Path temp = directory.resolve(journal.getSessionId() + SNAPSHOT + ".tmp");
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                    StandardOpenOption.TRUNCATE_EXISTING)) {
+                while (state.hasRemaining()) {
+                    channel.write(bytes);
+                }
+                channel.force(false);
+            }
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar a foto de " + journal.getSessionId(), e);
+        }
+    }
+
+    private void delete(String sessionId) {
+        try {
+            Files.deleteIfExists(directory.resolve(sessionId + SNAPSHOT));
+            Files.deleteIfExists(directory.resolve(sessionId + JOURNAL));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao apagar o diário de " + sessionId, e);
+        }
+    }
+
+    // Grava e sincroniza o que ainda está na fila antes de parar
+    @Override
+    public void close() {
+        if (closed) return;
+        closed = true;
+        queue.add(STOP);
+        try {
+            writer.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,7 @@
+package framework.persistence;
+
+import java.nio.file.Path;
+
+// Partida do diário que não pôde ser recuperada; as outras do diretório seguem normalmente
+public record RecoveryFailure(String sessionId, Path file, String reason) {
+}
@@ -0,0 +1,24 @@
+package framework.persistence;
+
+import java.nio.file.Path;
+import java.util.List;
+
+// Resultado de GameReplayer.replay; failures traz o primeiro registro inválido de cada partida rejeitada
+public record ReplayReport(long games, long plies, List<Failure> failures, long nanos) {
+
+    // record é a posição do registro no diário, a partir de 1 (0 = cabeçalho)
+    public record Failure(Path file, String gameId, long record, String reason) {
+    }
+
+    public long invalidGames() {
+        return failures.size();
+    }
+
+    public double gamesPerSecond() {
+        return nanos == 0 ? 0 : games * 1e9 / nanos;
+    }
+
+    public double pliesPerSecond() {
+        return nanos == 0 ? 0 : plies * 1e9 / nanos;
+    }
+}
@@ -0,0 +1,269 @@
+package framework.persistence;
+
+import framework.core.GameBoard;
+import framework.core.GameRegistry;
+import framework.core.PieceType;
+import framework.core.Player;
+import framework.patterns.behavioral.memento.HistoryManager;
+import framework.patterns.creational.abstractFactory.GameAbstractFactory;
+import framework.patterns.structural.facade.GameSession;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/*
+    Estado completo de uma partida em poucos bytes, lido e gravado direto no
+    ByteBuffer:
+
+        versão, flags, id do jogo (o terreno vem da fábrica do jogo), vez,
+        número de peças e, por slot do deck, (tipo, dono, casa),
+        lances desfazíveis e refazíveis do fim do histórico (um long cada).
+
+    Tipo é o índice da primeira peça do deck com o mesmo tipo e dono é o índice
+    do jogador; os dois só conferem que o estado é do mesmo jogo, já que o deck
+    de um jogo é sempre montado pela mesma fábrica. Casa 0xFF (ou 0xFFFF com
+    WIDE) é peça capturada.
+
+    Cada instância guarda os pares (tipo, dono) do último tabuleiro usado, que não
+    mudam durante a partida, e não deve ser usada por duas threads ao mesmo tempo.
+    capture copia o estado para um Capture, que pode ser gravado depois em outra
+    thread sem tocar na sessão.
+ */
+public final class SessionCodec {
+    public static final byte VERSION = 1;
+    private static final byte WIDE = 1;
+    private static final int NONE = 0xFF;
+
+    // Estado copiado da sessão; os vetores são cópias e não são mais alterados
+    public record Capture(String gameId, boolean wide, int turn, byte[] layout, int[] squares, long[] history,
+                          int undoable) {
+    }
+
+    private int[] squares = new int[0];
+    private long[] tail = new long[0];
+    private GameBoard layoutBoard;
+    private byte[] layout = new byte[0];
+
+    // historyTail limita quantos lances desfazíveis (e quantos refazíveis) são gravados
+    public void encode(String gameId, GameSession session, int historyTail, ByteBuffer out) {
+        GameBoard board = session.board();
+        int count = board.getPieces().size();
+        if (count > NONE) {
+            throw new IllegalArgumentException("Peças demais para o formato: " + count);
+        }
+        boolean wide = board.getCellCount() >= NONE;
+        HistoryManager history = session.history();
+        long cursor = history.cursor();
+        int undoable = (int) Math.min(historyTail, cursor);
+        int redoable = (int) Math.min(historyTail, history.size() - cursor);
+        if (out.remaining() < size(gameId, count, wide, undoable + redoable)) {
+            throw new BufferOverflowException();
+        }
+
+        out.put(VERSION).put(wide ? WIDE : 0);
+        putId(gameId, out);
+        out.put((byte) session.turn()).put((byte) count);
+        byte[] layout = layout(session);
+        for (int slot = 0; slot < count; slot++) {
+            int square = board.cellIndex(board.pieceInSlot(slot).getPosition());
+            out.put(layout[2 * slot]).put(layout[2 * slot + 1]);
+            if (wide) {
+                out.putShort((short) (square < 0 ? 0xFFFF : square));
+            } else {
+                out.put((byte) (square < 0 ? NONE : square));
+            }
+        }
+        out.putInt(undoable).putInt(redoable);
+        int entries = undoable + redoable;
+        if (tail.length < entries) {
+            tail = new long[entries];
+        }
+        history.copy(cursor - undoable, tail, 0, entries);
+        for (int i = 0; i < entries; i++) {
+            out.putLong(tail[i]);
+        }
+    }
+
+    // Roda com a sessão parada (no escritor dela); o histórico é copiado em um único lote
+    public Capture capture(String gameId, GameSession session, int historyTail) {
+        GameBoard board = session.board();
+        int count = board.getPieces().size();
+        if (count > NONE) {
+            throw new IllegalArgumentException("Peças demais para o formato: " + count);
+        }
+        int[] squares = new int[count];
+        for (int slot = 0; slot < count; slot++) {
+            squares[slot] = board.cellIndex(board.pieceInSlot(slot).getPosition());
+        }
+        HistoryManager history = session.history();
+        long cursor = history.cursor();
+        int undoable = (int) Math.min(historyTail, cursor);
+        int redoable = (int) Math.min(historyTail, history.size() - cursor);
+        long[] entries = new long[undoable + redoable];
+        history.copy(cursor - undoable, entries, 0, entries.length);
+        return new Capture(gameId, board.getCellCount() >= NONE, session.turn(), layout(session).clone(), squares,
+                entries, undoable);
+    }
+
+    public static void encode(Capture state, ByteBuffer out) {
+        int count = state.squares().length;
+        boolean wide = state.wide();
+        if (out.remaining() < size(state)) {
+            throw new BufferOverflowException();
+        }
+        out.put(VERSION).put(wide ? WIDE : 0);
+        putId(state.gameId(), out);
+        out.put((byte) state.turn()).put((byte) count);
+        byte[] layout = state.layout();
+        for (int slot = 0; slot < count; slot++) {
+            int square = state.squares()[slot];
+            out.put(layout[2 * slot]).put(layout[2 * slot + 1]);
+            if (wide) {
+                out.putShort((short) (square < 0 ? 0xFFFF : square));
+            } else {
+                out.put((byte) (square < 0 ? NONE : square));
+            }
+        }
+        long[] history = state.history();
+        out.putInt(state.undoable()).putInt(history.length - state.undoable());
+        for (long entry : history) {
+            out.putLong(entry);
+        }
+    }
+
+    public static int size(Capture state) {
+        return size(state.gameId(), state.squares().length, state.wide(), state.history().length);
+    }
+
+    // Cria a sessão pelo id do jogo gravado
+    public GameSession decode(ByteBuffer in) {
+        String gameId = gameId(in);
+        GameAbstractFactory factory = GameRegistry.get(gameId);
+        if (factory == null) {
+            throw new IllegalArgumentException("Game not found: " + gameId);
+        }
+        GameSession session = new GameSession(factory);
+        decode(in, session);
+        return session;
+    }
+
+    // Carrega o estado em uma sessão do mesmo jogo (por exemplo, uma tirada do SessionPool)
+    public void decode(ByteBuffer in, GameSession target) {
+        byte version = in.get();
+        if (version != VERSION) {
+            throw new IllegalArgumentException("Versão de estado não suportada: " + version);
+        }
+        boolean wide = (in.get() & WIDE) != 0;
+        int idLength = in.get() & 0xFF;
+        in.position(in.position() + idLength);
+        int turn = in.get() & 0xFF;
+        int count = in.get() & 0xFF;
+
+        GameBoard board = target.board();
+        if (count != board.getPieces().size()) {
+            throw new IllegalArgumentException("Esperadas " + board.getPieces().size() + " peças, recebidas " + count);
+        }
+        if (squares.length != count) {
+            squares = new int[count];
+        }
+        byte[] layout = layout(target);
+        for (int slot = 0; slot < count; slot++) {
+            if (in.get() != layout[2 * slot] || in.get() != layout[2 * slot + 1]) {
+                throw new IllegalArgumentException("Peça do slot " + slot + " não corresponde ao jogo da sessão");
+            }
+            int square = wide ? in.getShort() & 0xFFFF : in.get() & 0xFF;
+            squares[slot] = square == (wide ? 0xFFFF : NONE) ? -1 : square;
+        }
+        target.load(turn, squares);
+
+        int undoable = in.getInt();
+        int redoable = in.getInt();
+        HistoryManager history = target.history();
+        history.clear();
+        for (int i = 0; i < undoable + redoable; i++) {
+            history.push(in.getLong());
+        }
+        for (int i = 0; i < redoable; i++) {
+            history.undo();
+        }
+    }
+
+    // Id do jogo gravado, sem consumir o buffer
+    public static String gameId(ByteBuffer in) {
+        int start = in.position();
+        int length = in.get(start + 2) & 0xFF;
+        byte[] id = new byte[length];
+        in.get(start + 3, id);
+        return new String(id, StandardCharsets.UTF_8);
+    }
+
+    // Bytes que encode vai ocupar para esta sessão
+    public static int size(String gameId, GameSession session, int historyTail) {
+        HistoryManager history = session.history();
+        long cursor = history.cursor();
+        long tail = Math.min(historyTail, cursor) + Math.min(historyTail, history.size() - cursor);
+        GameBoard board = session.board();
+        return size(gameId, board.getPieces().size(), board.getCellCount() >= NONE, (int) tail);
+    }
+
+    private static int size(String gameId, int pieces, boolean wide, int history) {
+        return 1 + 1 + 1 + idLength(gameId) + 1 + 1 + pieces * (wide ? 4 : 3) + 4 + 4 + history * Long.BYTES;
+    }
+
+    // Ids ASCII são gravados caractere a caractere, sem criar o vetor de bytes
+    private static void putId(String gameId, ByteBuffer out) {
+        int length = idLength(gameId);
+        out.put((byte) length);
+        if (length == gameId.length()) {
+            for (int i = 0; i < length; i++) {
+                out.put((byte) gameId.charAt(i));
+            }
+        } else {
+            out.put(gameId.getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    private static int idLength(String gameId) {
+        for (int i = 0; i < gameId.length(); i++) {
+            if (gameId.charAt(i) >= 0x80) {
+                int length = gameId.getBytes(StandardCharsets.UTF_8).length;
+                if (length > 0xFF) throw new IllegalArgumentException("Id de jogo longo demais: " + gameId);
+                return length;
+            }
+        }
+        if (gameId.length() > 0xFF) throw new IllegalArgumentException("Id de jogo longo demais: " + gameId);
+        return gameId.length();
+    }
+
+    private byte[] layout(GameSession session) {
+        GameBoard board = session.board();
+        int count = board.getPieces().size();
+        if (board != layoutBoard || layout.length != 2 * count) {
+            layout = new byte[2 * count];
+            for (int slot = 0; slot < count; slot++) {
+                layout[2 * slot] = (byte) typeIndex(board, slot);
+                layout[2 * slot + 1] = (byte) ownerIndex(session, board.pieceInSlot(slot).getOwner());
+            }
+            layoutBoard = board;
+        }
+        return layout;
+    }
+
+    private static int typeIndex(GameBoard board, int slot) {
+        PieceType type = board.pieceInSlot(slot).getProps().type();
+        for (int first = 0; first < slot; first++) {
+            if (board.pieceInSlot(first).getProps().type() == type) return first;
+        }
+        return slot;
+    }
+
+    // Por id, porque peças copiadas com a sessão podem apontar para o jogador original
+    private static int ownerIndex(GameSession session, Player owner) {
+        if (owner == null) return NONE;
+        for (int i = 0; i < session.players().size(); i++) {
+            if (session.players().get(i).getId().equals(owner.getId())) return i;
+        }
+        return NONE;
+    }
+}
@@ -0,0 +1,122 @@
+package framework.persistence;
+
+import framework.patterns.structural.facade.GameSession;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+
+/*
+    Diário de uma partida. Os métodos só enfileiram o registro no MoveJournal e
+    devem ser chamados pelo escritor da sessão logo depois de aplicar o comando;
+    a gravação acontece na thread do diário.
+ */
+public class SessionJournal implements AutoCloseable {
+    private final MoveJournal owner;
+    private final String sessionId;
+    private final FileChannel channel;
+    private final String gameId;
+    private final GameSession session;
+    private final SessionCodec codec = new SessionCodec();
+    private long records;
+    // Usado só pela thread do diário
+    private final ByteBuffer pending = ByteBuffer.allocate(MoveJournal.RECORD_BYTES * 256);
+
+    SessionJournal(MoveJournal owner, String sessionId, String gameId, FileChannel channel, GameSession session) {
+        this.owner = owner;
+        this.sessionId = sessionId;
+        this.gameId = gameId;
+        this.channel = channel;
+        this.session = session;
+    }
+
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    // Roda no escritor da sessão, junto com o registro que completa o intervalo; a codificação fica para o diário
+    SessionCodec.Capture capture(int historyTail) {
+        return codec.capture(gameId, session, historyTail);
+    }
+
+    // Lança IllegalStateException se o diário já não aceita registros; chamado antes de aplicar o comando
+    public void checkWritable() {
+        owner.checkOpen();
+    }
+
+    public void move(int from, int to) {
+        owner.append(this, MoveJournal.MOVE, from, to, ++records);
+    }
+
+    public void pass() {
+        owner.append(this, MoveJournal.PASS, 0, 0, ++records);
+    }
+
+    public void undo() {
+        owner.append(this, MoveJournal.UNDO, 0, 0, ++records);
+    }
+
+    public void redo() {
+        owner.append(this, MoveJournal.REDO, 0, 0, ++records);
+    }
+
+    @Override
+    public void close() {
+        owner.close(this);
+    }
+
+    // Partida encerrada: apaga diário e foto, que não precisam mais ser recuperados
+    public void discard() {
+        owner.discard(this);
+    }
+
+    // Registros que chegam depois de close ou discard são ignorados pela thread do diário
+    boolean isOpen() {
+        return channel.isOpen();
+    }
+
+    void buffer(byte type, int from, int to) {
+        if (pending.remaining() < MoveJournal.RECORD_BYTES) {
+            flush();
+        }
+        pending.put(type).putShort((short) from).putShort((short) to);
+    }
+
+    void flush() {
+        pending.flip();
+        try {
+            while (pending.hasRemaining()) {
+                channel.write(pending);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao gravar o diário de " + sessionId, e);
+        } finally {
+            pending.clear();
+        }
+    }
+
+    void force() {
+        try {
+            channel.force(false);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao sincronizar o diário de " + sessionId, e);
+        }
+    }
+
+    long position() {
+        try {
+            return channel.position();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao ler a posição do diário de " + sessionId, e);
+        }
+    }
+
+    void closeChannel() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Falha ao fechar o diário de " + sessionId, e);
+        }
+    }
+}
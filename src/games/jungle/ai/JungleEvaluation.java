@@ -0,0 +1,91 @@
+package games.jungle.ai;
+
+import framework.ai.Evaluation;
+import framework.core.GameBoard;
+import framework.core.Player;
+import framework.patterns.behavioral.iterator.PieceDeck;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.proxy.IGameSession;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.core.JungleBitboard;
+import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.JungleBoard;
+
+/*
+    Material pelas patentes dos animais (o rato vale mais que a patente sugere,
+    porque ameaça o elefante) mais um bônus por proximidade da toca inimiga.
+ */
+public class JungleEvaluation implements Evaluation {
+    private static final int DEN_WEIGHT = 10;
+    private static final int MAX_DISTANCE = JungleBitboard.WIDTH + JungleBitboard.HEIGHT;
+    private static final int[] DENS = {
+            Long.numberOfTrailingZeros(JungleBitboard.den(0)),
+            Long.numberOfTrailingZeros(JungleBitboard.den(1))
+    };
+
+    @Override
+    public int evaluate(IGameSession session) {
+        JungleBoard board = (JungleBoard) session.board();
+        Player current = session.currentPlayer();
+        PieceDeck pieces = board.getPieces();
+
+        int score = 0, own = 0, enemy = 0;
+        for (int i = 0; i < pieces.size(); i++) {
+            GamePiece piece = pieces.get(i);
+            Position position = piece.getPosition();
+            if (position == null) continue;
+            Position den = enemyDen(board, piece);
+            boolean mine = piece.getOwner() == current;
+            if (position.equals(den)) {
+                return mine ? WIN : -WIN;
+            }
+
+            int distance = Math.abs(position.x() - den.x()) + Math.abs(position.y() - den.y());
+            int value = material((JunglePieceType) piece.getProps().type()) + DEN_WEIGHT * (MAX_DISTANCE - distance);
+            if (mine) {
+                score += value;
+                own++;
+            } else {
+                score -= value;
+                enemy++;
+            }
+        }
+        if (enemy == 0) return WIN;
+        if (own == 0) return -WIN;
+        return score;
+    }
+
+    @Override
+    public boolean isGameOver(IGameSession session) {
+        JungleBoard board = (JungleBoard) session.board();
+        for (int den : DENS) {
+            GamePiece occupant = board.pieceAt(den);
+            if (occupant != null && !isOwnDen(board, occupant, den)) {
+                return true;
+            }
+        }
+        Player first = null;
+        PieceDeck pieces = board.getPieces();
+        for (int i = 0; i < pieces.size(); i++) {
+            if (pieces.get(i).getPosition() == null) continue;
+            Player owner = pieces.get(i).getOwner();
+            if (first == null) first = owner;
+            else if (owner != first) return false;
+        }
+        return true;
+    }
+
+    private int material(JunglePieceType type) {
+        return type == JunglePieceType.MOUSE ? 300 : type.getRank() * 100;
+    }
+
+    private Position enemyDen(JungleBoard board, GamePiece piece) {
+        int den = isOwnDen(board, piece, DENS[0]) ? DENS[1] : DENS[0];
+        return board.getCell(den).getPosition();
+    }
+
+    private boolean isOwnDen(GameBoard board, GamePiece piece, int den) {
+        Position position = board.getCell(den).getPosition();
+        return ((JungleBoard) board).isHomeSquare(piece, position.x(), position.y());
+    }
+}
@@ -0,0 +1,265 @@
+package games.jungle.core;
+
+import framework.core.Cell;
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.core.Player;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.patterns.builder.JungleBoardBuilder;
+
+import java.util.Arrays;
+import java.util.List;
+
+/*
+    Representação do tabuleiro 7x9 da Selva em bitboards: cada casa é um bit
+    de um long (índice x + y * WIDTH, o mesmo de GameBoard.cellIndex).
+    O jogador 0 começa na parte de baixo (toca de y = 8) e o jogador 1 na de cima.
+
+    JungleBoard mantém um bitboard atualizado a cada mudança de ocupação e gera
+    e valida os lances por ele quando o terreno e as cadeias de regras são os
+    da Selva padrão.
+ */
+public final class JungleBitboard {
+    public static final int WIDTH = 7;
+    public static final int HEIGHT = 9;
+    public static final int SQUARES = WIDTH * HEIGHT;
+
+    public static final int NORTH = 0, SOUTH = 1, EAST = 2, WEST = 3;
+
+    private static final JunglePieceType[] TYPES = JunglePieceType.values();
+
+    public static final long BOARD = (1L << SQUARES) - 1;
+    private static final long FILE_FIRST;
+    private static final long FILE_LAST;
+
+    public static final long WATER;
+    public static final long TRAPS;
+    public static final long DENS;
+    private static final long[] DEN = new long[2];
+    private static final long[] TRAP = new long[2];
+
+    // Para cada tipo, bitmask (por ordinal) dos tipos inimigos que ele pode capturar fora das armadilhas
+    private static final int[] CAPTURES = new int[TYPES.length];
+
+    static {
+        long first = 0, last = 0;
+        for (int y = 0; y < HEIGHT; y++) {
+            first |= bit(square(0, y));
+            last |= bit(square(WIDTH - 1, y));
+        }
+        FILE_FIRST = first;
+        FILE_LAST = last;
+
+        JungleBoardBuilder builder = new JungleBoardBuilder();
+        builder.createBoard(WIDTH, HEIGHT);
+        builder.configureCells();
+        GameBoard terrain = builder.getResult();
+
+        long water = 0, traps = 0, dens = 0;
+        for (int sq = 0; sq < SQUARES; sq++) {
+            Cell cell = terrain.getCell(sq);
+            if (cell.getType() == JungleCellType.WATER) water |= bit(sq);
+            else if (cell.getType() == JungleCellType.TRAP) traps |= bit(sq);
+            else if (cell.getType() == JungleCellType.DEN) dens |= bit(sq);
+        }
+        WATER = water;
+        TRAPS = traps;
+        DENS = dens;
+
+        long bottomHalf = BOARD & -(1L << (HEIGHT / 2 + 1) * WIDTH);
+        DEN[0] = dens & bottomHalf;
+        DEN[1] = dens & ~bottomHalf;
+        TRAP[0] = traps & bottomHalf;
+        TRAP[1] = traps & ~bottomHalf;
+
+        for (JunglePieceType attacker : TYPES) {
+            int mask = 0;
+            for (JunglePieceType defender : TYPES) {
+                boolean allowed = attacker == JunglePieceType.MOUSE
+                        ? defender == JunglePieceType.MOUSE || defender == JunglePieceType.ELEPHANT
+                        : attacker.getRank() >= defender.getRank()
+                        && !(attacker == JunglePieceType.ELEPHANT && defender == JunglePieceType.MOUSE);
+                if (allowed) mask |= 1 << defender.ordinal();
+            }
+            CAPTURES[attacker.ordinal()] = mask;
+        }
+    }
+
+    private final long[] pieces = new long[2 * TYPES.length];
+    private final long[] occupied = new long[2];
+
+    public static int square(int x, int y) {
+        return x + y * WIDTH;
+    }
+
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    public static long den(int player) {
+        return DEN[player];
+    }
+
+    public static long traps(int player) {
+        return TRAP[player];
+    }
+
+    public static long shift(long b, int direction) {
+        return switch (direction) {
+            case NORTH -> b >>> WIDTH;
+            case SOUTH -> (b << WIDTH) & BOARD;
+            case EAST -> (b & ~FILE_LAST) << 1;
+            default -> (b & ~FILE_FIRST) >>> 1;
+        };
+    }
+
+    public static JungleBitboard from(GameBoard board, List<Player> players) {
+        JungleBitboard bitboard = new JungleBitboard();
+        for (int player = 0; player < players.size(); player++) {
+            List<GamePiece> owned = players.get(player).getPieces();
+            if (owned == null) continue;
+            for (GamePiece piece : owned) {
+                Position position = piece.getPosition();
+                if (position == null || piece.getBoard() != board) continue;
+                bitboard.put(player, (JunglePieceType) piece.getProps().type(), square(position.x(), position.y()));
+            }
+        }
+        return bitboard;
+    }
+
+    public void clear() {
+        Arrays.fill(pieces, 0);
+        Arrays.fill(occupied, 0);
+    }
+
+    public void put(int player, JunglePieceType type, int square) {
+        pieces[player * TYPES.length + type.ordinal()] |= bit(square);
+        occupied[player] |= bit(square);
+    }
+
+    public void remove(int player, JunglePieceType type, int square) {
+        pieces[player * TYPES.length + type.ordinal()] &= ~bit(square);
+        occupied[player] &= ~bit(square);
+    }
+
+    public long pieces(int player, JunglePieceType type) {
+        return pieces[player * TYPES.length + type.ordinal()];
+    }
+
+    public long occupancy(int player) {
+        return occupied[player];
+    }
+
+    public long occupancy() {
+        return occupied[0] | occupied[1];
+    }
+
+    public long mice() {
+        return pieces(0, JunglePieceType.MOUSE) | pieces(1, JunglePieceType.MOUSE);
+    }
+
+    public JunglePieceType typeAt(int player, int square) {
+        long b = bit(square);
+        if ((occupied[player] & b) == 0) return null;
+        int base = player * TYPES.length;
+        for (int t = 0; t < TYPES.length; t++) {
+            if ((pieces[base + t] & b) != 0) return TYPES[t];
+        }
+        return null;
+    }
+
+    // Casas de destino alcançáveis por saltos sobre o rio a partir de uma casa
+    public static long leaps(long from, long mice) {
+        long result = 0;
+        for (int direction = NORTH; direction <= WEST; direction++) {
+            long t = shift(from, direction);
+            if ((t & WATER) == 0) continue;
+            while ((t & WATER) != 0 && (t & mice) == 0) {
+                t = shift(t, direction);
+            }
+            if ((t & WATER) == 0) {
+                result |= t;
+            }
+        }
+        return result;
+    }
+
+    public long targets(int player, JunglePieceType type, int from) {
+        long origin = bit(from);
+        long steps = shift(origin, NORTH) | shift(origin, SOUTH) | shift(origin, EAST) | shift(origin, WEST);
+        if (type != JunglePieceType.MOUSE) {
+            steps &= ~WATER;
+        }
+        if (type == JunglePieceType.LION || type == JunglePieceType.TIGER) {
+            steps |= leaps(origin, mice());
+        }
+        steps &= ~DEN[player] & ~occupied[player];
+
+        int enemy = 1 - player;
+        long defenders = steps & occupied[enemy];
+        if (defenders == 0) return steps;
+
+        long capturable = occupied[enemy] & TRAP[player];
+        int mask = CAPTURES[type.ordinal()];
+        int base = enemy * TYPES.length;
+        for (int t = 0; t < TYPES.length; t++) {
+            if ((mask & (1 << t)) != 0) capturable |= pieces[base + t];
+        }
+        if (type == JunglePieceType.MOUSE) {
+            capturable &= (origin & WATER) != 0 ? WATER : ~WATER;
+        }
+        return steps & ~(defenders & ~capturable);
+    }
+
+    public boolean isLegal(int player, int from, int to) {
+        JunglePieceType type = typeAt(player, from);
+        return type != null && (targets(player, type, from) & bit(to)) != 0;
+    }
+
+    // Acrescenta os lances do jogador em moves, no formato de MoveBuffer, e devolve a quantidade gerada
+    public int generateMoves(int player, MoveBuffer moves) {
+        int count = 0;
+        int base = player * TYPES.length;
+        for (int t = 0; t < TYPES.length; t++) {
+            long remaining = pieces[base + t];
+            while (remaining != 0) {
+                int from = Long.numberOfTrailingZeros(remaining);
+                remaining &= remaining - 1;
+                long targets = targets(player, TYPES[t], from);
+                while (targets != 0) {
+                    int to = Long.numberOfTrailingZeros(targets);
+                    targets &= targets - 1;
+                    moves.add(from, to);
+                    count++;
+                }
+            }
+        }
+        return count;
+    }
+
+    // Executa o lance sem validar e devolve o tipo capturado (ou null) para desfazer depois
+    public JunglePieceType makeMove(int player, int from, int to) {
+        JunglePieceType type = typeAt(player, from);
+        JunglePieceType captured = typeAt(1 - player, to);
+        if (captured != null) remove(1 - player, captured, to);
+        remove(player, type, from);
+        put(player, type, to);
+        return captured;
+    }
+
+    public void unmakeMove(int player, int from, int to, JunglePieceType captured) {
+        JunglePieceType type = typeAt(player, to);
+        remove(player, type, to);
+        put(player, type, from);
+        if (captured != null) put(1 - player, captured, to);
+    }
+
+    // Devolve o vencedor (0 ou 1) ou -1 se a partida ainda não terminou
+    public int winner() {
+        for (int player = 0; player < 2; player++) {
+            if ((occupied[player] & DEN[1 - player]) != 0 || occupied[1 - player] == 0) return player;
+        }
+        return -1;
+    }
+}
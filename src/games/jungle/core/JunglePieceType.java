@@ -3,7 +3,17 @@ package games.jungle.core;
 import framework.core.PieceType;
 
 public enum JunglePieceType implements PieceType {
-    ELEPHANT, LION, TIGER, LEOPARD, DOG, WOLF, CAT, MOUSE;
+    ELEPHANT(8), LION(7), TIGER(6), LEOPARD(5), DOG(3), WOLF(4), CAT(2), MOUSE(1);
+
+    private final int rank;
+
+    JunglePieceType(int rank) {
+        this.rank = rank;
+    }
+
+    public int getRank() {
+        return rank;
+    }
 
     @Override
     public String getName() {
@@ -1,48 +1,150 @@
 package games.jungle.patterns;
 
-import framework.core.Cell;
 import framework.core.GameBoard;
+import framework.core.Terrain;
+import framework.core.cellType.CellType;
+import framework.patterns.behavioral.iterator.PieceDeck;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.structural.flyweight.GamePiece;
-import games.jungle.core.JungleCellType;
+import framework.core.MoveBuffer;
+import games.jungle.core.JungleBitboard;
 import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.chainOfRespo.CompiledJungleMove;
 
 public class JungleBoard extends GameBoard {
+    // Perfis de alcance estático (combináveis): passo ortogonal, salto sobre o rio, proibido entrar na água
+    public static final int REACH_STEP = 1, REACH_LEAP = 2, REACH_DRY = 4;
+
+    private JungleTerrainTables tables;
+    private long mice;
+    // Peças por lado e tipo; o lado 0 é o que começou embaixo. Só vale enquanto nenhuma peça no tabuleiro ficar sem lado
+    private final JungleBitboard bitboard = new JungleBitboard();
+    private int unsided;
+
     public JungleBoard(int width, int height) {
         super(width, height);
+        checkSize(width * height);
+    }
+
+    public JungleBoard(Terrain terrain) {
+        super(terrain);
+        checkSize(terrain.getCellCount());
+    }
+
+    // Estático para não chamar métodos sobrescrevíveis durante a construção
+    private static void checkSize(int cells) {
+        if (cells > Long.SIZE) {
+            throw new IllegalArgumentException("JungleBoard supports at most " + Long.SIZE + " cells");
+        }
     }
 
+    @Override
+    public GameBoard emptyCopy() {
+        return new JungleBoard(shareTerrain());
+    }
+
+    @Override
+    public void setCellType(int x, int y, CellType type) {
+        super.setCellType(x, y, type);
+        tables = null;
+    }
+
+    @Override
+    public void setPieces(PieceDeck pieces) {
+        mice = 0;
+        bitboard.clear();
+        unsided = 0;
+        super.setPieces(pieces);
+    }
 
     public boolean hasLeapPath(Position from, Position to) {
-        if (from.x() != to.x() && from.y() != to.y()) return false;
+        int origin = cellIndex(from);
+        int target = cellIndex(to);
+        if (origin < 0 || target < 0) return false;
 
-        int dx = Integer.compare(to.x(), from.x());
-        int dy = Integer.compare(to.y(), from.y());
+        JungleTerrainTables tables = tables();
+        int slot = tables.leapSlot(origin, target);
+        return slot >= 0 && (tables.leapWater[slot] & mice) == 0;
+    }
 
-        int x = from.x() + dx;
-        int y = from.y() + dy;
+    // Destinos possíveis a partir de origin considerando só o terreno (sem peças), como bitmask de casas
+    public long staticReach(int profile, int origin) {
+        return tables().reach(profile, origin);
+    }
 
-        while (x != to.x() || y != to.y()) {
-            Position pos = new Position(x, y);
-            Cell cell = getCell(pos);
+    public boolean isLeapBlocked(int origin, int target) {
+        JungleTerrainTables tables = tables();
+        int slot = tables.leapSlot(origin, target);
+        return slot < 0 || (tables.leapWater[slot] & mice) != 0;
+    }
 
-            if (cell == null || cell.getType() != JungleCellType.WATER) return false;
-            if (hasRatAt(pos)) return false;
+    // Casa no lado do tabuleiro onde a peça começou (toca e armadilhas próprias)
+    public boolean isHomeSquare(GamePiece piece, int x, int y) {
+        Position initial = piece.getInitialPosition();
+        return initial != null && Math.abs(initial.y() - y) <= getHeight() / 2;
+    }
 
-            x += dx;
-            y += dy;
+    // Com o terreno e as regras padrão os destinos vêm do bitboard; senão, da cadeia de regras casa a casa
+    @Override
+    public void addLegalTargets(GamePiece piece, int from, MoveBuffer moves) {
+        int side = bitboardSide(piece);
+        if (side < 0) {
+            super.addLegalTargets(piece, from, moves);
+            return;
         }
+        long targets = bitboard.targets(side, (JunglePieceType) piece.getProps().type(), from);
+        while (targets != 0) {
+            moves.add(from, Long.numberOfTrailingZeros(targets));
+            targets &= targets - 1;
+        }
+    }
 
-        return true;
+    @Override
+    public boolean isLegalTarget(GamePiece piece, int from, int to) {
+        int side = bitboardSide(piece);
+        if (side < 0) {
+            return super.isLegalTarget(piece, from, to);
+        }
+        return (bitboard.targets(side, (JunglePieceType) piece.getProps().type(), from) & JungleBitboard.bit(to)) != 0;
     }
 
+    // Lado da peça no bitboard, ou -1 quando o bitboard não reproduz as regras dela
+    private int bitboardSide(GamePiece piece) {
+        if (unsided > 0 || !tables().bitboardLayout
+                || !(piece.getProps().type() instanceof JunglePieceType type)
+                || !(piece.getProps().moveChain() instanceof CompiledJungleMove compiled) || !compiled.isStandard(type)) {
+            return -1;
+        }
+        return side(piece);
+    }
 
-    private boolean hasRatAt(Position pos) {
-        GamePiece piece = getPieces().stream().filter(p -> p.getPosition().equals(pos)).findFirst().orElse(null);
-        return piece != null && piece.getProps().type().equals(JunglePieceType.MOUSE);
+    // Lado 0 para quem começou na metade de baixo (a linha do meio não é casa de ninguém)
+    private int side(GamePiece piece) {
+        Position initial = piece.getInitialPosition();
+        if (initial == null || initial.y() * 2 == getHeight() - 1) return -1;
+        return initial.y() * 2 > getHeight() - 1 ? 0 : 1;
     }
 
+    @Override
+    protected void occupancyChanged(GamePiece piece, int from, int to) {
+        if (piece.getProps().type().equals(JunglePieceType.MOUSE)) {
+            if (from >= 0) mice &= ~(1L << from);
+            if (to >= 0) mice |= 1L << to;
+        }
+        int side = piece.getProps().type() instanceof JunglePieceType ? side(piece) : -1;
+        if (side < 0) {
+            unsided += (to >= 0 ? 1 : 0) - (from >= 0 ? 1 : 0);
+            return;
+        }
+        JunglePieceType type = (JunglePieceType) piece.getProps().type();
+        if (from >= 0) bitboard.remove(side, type, from);
+        if (to >= 0) bitboard.put(side, type, to);
+    }
 
+    private JungleTerrainTables tables() {
+        if (tables == null) {
+            tables = terrain().derived(JungleTerrainTables.class, JungleTerrainTables::new);
+        }
+        return tables;
+    }
 }
-
-
@@ -0,0 +1,125 @@
+package games.jungle.patterns;
+
+import framework.core.Terrain;
+import games.jungle.core.JungleBitboard;
+import games.jungle.core.JungleCellType;
+
+import java.util.Arrays;
+
+// Tabelas de saltos e alcance estático, montadas uma vez por terreno e só lidas depois, por qualquer partida
+final class JungleTerrainTables {
+    static final int[][] DIRECTIONS = {{0, -1}, {0, 1}, {1, 0}, {-1, 0}};
+    private static final int REACH_PROFILES = 8;
+
+    private final Terrain terrain;
+    // Para cada casa de origem e direção: casa de pouso (-1 se não há salto) e a água atravessada
+    final int[] leapTargets;
+    final long[] leapWater;
+    private final long[][] reach = new long[REACH_PROFILES][];
+    // Terreno igual ao da Selva padrão, o único que JungleBitboard representa
+    final boolean bitboardLayout;
+
+    JungleTerrainTables(Terrain terrain) {
+        this.terrain = terrain;
+        this.leapTargets = new int[terrain.getCellCount() * DIRECTIONS.length];
+        this.leapWater = new long[leapTargets.length];
+        buildLeapTable();
+        for (int profile = 0; profile < REACH_PROFILES; profile++) {
+            reach[profile] = buildReach(profile);
+        }
+        this.bitboardLayout = matchesBitboard();
+    }
+
+    int leapSlot(int origin, int target) {
+        for (int slot = origin * DIRECTIONS.length; slot < (origin + 1) * DIRECTIONS.length; slot++) {
+            if (leapTargets[slot] == target) return slot;
+        }
+        return -1;
+    }
+
+    long reach(int profile, int origin) {
+        return reach[profile][origin];
+    }
+
+    private void buildLeapTable() {
+        Arrays.fill(leapTargets, -1);
+        for (int y = 0; y < terrain.getHeight(); y++) {
+            for (int x = 0; x < terrain.getWidth(); x++) {
+                if (isWater(x, y)) continue;
+                for (int d = 0; d < DIRECTIONS.length; d++) {
+                    int cx = x + DIRECTIONS[d][0];
+                    int cy = y + DIRECTIONS[d][1];
+                    long crossed = 0;
+                    while (isWater(cx, cy)) {
+                        crossed |= 1L << index(cx, cy);
+                        cx += DIRECTIONS[d][0];
+                        cy += DIRECTIONS[d][1];
+                    }
+                    if (crossed != 0 && index(cx, cy) >= 0) {
+                        int slot = index(x, y) * DIRECTIONS.length + d;
+                        leapTargets[slot] = index(cx, cy);
+                        leapWater[slot] = crossed;
+                    }
+                }
+            }
+        }
+    }
+
+    private long[] buildReach(int profile) {
+        long water = 0;
+        for (int i = 0; i < terrain.getCellCount(); i++) {
+            if (terrain.getCell(i).getType() == JungleCellType.WATER) water |= 1L << i;
+        }
+
+        long[] table = new long[terrain.getCellCount()];
+        for (int y = 0; y < terrain.getHeight(); y++) {
+            for (int x = 0; x < terrain.getWidth(); x++) {
+                int origin = index(x, y);
+                long mask = 0;
+                if ((profile & (JungleBoard.REACH_STEP | JungleBoard.REACH_LEAP)) == 0) {
+                    mask = -1L >>> (Long.SIZE - terrain.getCellCount());
+                }
+                if ((profile & JungleBoard.REACH_STEP) != 0) {
+                    for (int[] d : DIRECTIONS) {
+                        int step = index(x + d[0], y + d[1]);
+                        if (step >= 0) mask |= 1L << step;
+                    }
+                }
+                if ((profile & JungleBoard.REACH_LEAP) != 0) {
+                    for (int slot = origin * DIRECTIONS.length; slot < (origin + 1) * DIRECTIONS.length; slot++) {
+                        if (leapTargets[slot] >= 0) mask |= 1L << leapTargets[slot];
+                    }
+                }
+                if ((profile & JungleBoard.REACH_DRY) != 0) {
+                    mask &= ~water;
+                }
+                table[origin] = mask;
+            }
+        }
+        return table;
+    }
+
+    private boolean matchesBitboard() {
+        if (terrain.getWidth() != JungleBitboard.WIDTH || terrain.getHeight() != JungleBitboard.HEIGHT) return false;
+        for (int i = 0; i < terrain.getCellCount(); i++) {
+            var type = terrain.getCell(i).getType();
+            long bit = JungleBitboard.bit(i);
+            if ((type == JungleCellType.WATER) != ((JungleBitboard.WATER & bit) != 0)
+                    || (type == JungleCellType.TRAP) != ((JungleBitboard.TRAPS & bit) != 0)
+                    || (type == JungleCellType.DEN) != ((JungleBitboard.DENS & bit) != 0)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private int index(int x, int y) {
+        if (x < 0 || y < 0 || x >= terrain.getWidth() || y >= terrain.getHeight()) return -1;
+        return x + y * terrain.getWidth();
+    }
+
+    private boolean isWater(int x, int y) {
+        int index = index(x, y);
+        return index >= 0 && terrain.getCell(index).getType() == JungleCellType.WATER;
+    }
+}
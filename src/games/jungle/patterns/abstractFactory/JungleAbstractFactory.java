@@ -10,8 +10,8 @@ import games.jungle.core.JunglePieceType;
 import games.jungle.patterns.builder.JungleBoardBuilder;
 import games.jungle.patterns.factory.flyweight.JungleGamePieceFactory;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 
 @GameId("Jungle")
 public class JungleAbstractFactory implements GameAbstractFactory {
@@ -19,37 +19,27 @@ public class JungleAbstractFactory implements GameAbstractFactory {
     private final JungleGamePieceFactory gamePieceFactory;
     private GameBoardDirector gameBoardDirector;
 
-
-    static {
-        GameRegistry.register("Jungle", new JungleAbstractFactory());
-    }
-
     public JungleAbstractFactory() {
         this.gamePieceFactory = new JungleGamePieceFactory();
     }
 
     @Override
     public List<GamePiece> createGamePieces() {
-        var gamePiecesRequest = Map.of(
-                JunglePieceType.CAT, 2,
-                JunglePieceType.DOG, 2,
-                JunglePieceType.WOLF, 2,
-                JunglePieceType.LEOPARD, 2,
-                JunglePieceType.TIGER, 2,
-                JunglePieceType.ELEPHANT, 2,
-                JunglePieceType.MOUSE, 2,
-                JunglePieceType.LION,2
-        );
-        return gamePiecesRequest.entrySet().stream()
-                .map(entry -> gamePieceFactory.createGamePiece(entry.getValue(), entry.getKey()))
-                .flatMap(List::stream)
-                .toList();
+        // Um conjunto completo por jogador, na ordem de JunglePieceType
+        List<GamePiece> gamePieces = new ArrayList<>();
+        for (int player = 0; player < 2; player++) {
+            for (JunglePieceType type : JunglePieceType.values()) {
+                gamePieces.addAll(gamePieceFactory.createGamePiece(1, type));
+            }
+        }
+        return gamePieces;
     }
 
+    // O diretor e o builder guardam estado entre as etapas da construção
     @Override
-    public GameBoard createGameBoard() {
+    public synchronized GameBoard createGameBoard() {
         if(gameBoardDirector == null) {
-            gameBoardDirector = new GameBoardDirector(new JungleBoardBuilder());
+            gameBoardDirector = new GameBoardDirector(new JungleBoardBuilder(this::createGamePieces));
         }
         return gameBoardDirector.construct(7, 9);
     }
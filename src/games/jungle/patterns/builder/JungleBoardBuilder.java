@@ -2,26 +2,49 @@ package games.jungle.patterns.builder;
 
 import framework.patterns.creational.prototype.Position;
 import framework.core.GameBoard;
+import framework.core.Terrain;
+import framework.patterns.behavioral.iterator.PieceDeck;
 import framework.patterns.creational.builder.BoardBuilder;
 import framework.patterns.structural.flyweight.GamePiece;
 import games.jungle.core.JungleCellType;
+import games.jungle.patterns.JungleBoard;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 public class JungleBoardBuilder implements BoardBuilder {
 
+    private final Supplier<List<GamePiece>> pieces;
     private GameBoard board;
+    // Terreno montado na primeira construção e reaproveitado pelos tabuleiros seguintes
+    private Terrain terrain;
+
+    public JungleBoardBuilder() {
+        this(List::of);
+    }
+
+    public JungleBoardBuilder(Supplier<List<GamePiece>> pieces) {
+        this.pieces = pieces;
+    }
 
     @Override
     public void createBoard(int width, int height) {
-        board = new GameBoard(width, height);
+        if (terrain != null && terrain.getWidth() == width && terrain.getHeight() == height) {
+            board = new JungleBoard(terrain);
+        } else {
+            terrain = null;
+            board = new JungleBoard(width, height);
+        }
     }
 
     @Override
     public void configureCells() {
+        if (terrain != null) return;
         this.placeWater();
         this.placeTraps();
         this.placeDens();
+        terrain = board.shareTerrain();
     }
 
     @Override
@@ -57,14 +80,16 @@ public class JungleBoardBuilder implements BoardBuilder {
     }
 
     private void placeInitialAnimals() {
-        List<GamePiece> pieces = board.getPieces().getAll();
+        board.setPieces(new PieceDeck(new ArrayList<>(this.pieces.get())));
+        List<GamePiece> pieces = new ArrayList<>(board.getPieces().getAll());
 
+        // Mesma ordem de JunglePieceType: elefante, leão, tigre, leopardo, cão, lobo, gato, rato
         int[][] positions = {
-                {0, 6}, {2, 6}, {4, 6}, {6, 6},
-                {0, 2}, {2, 2}, {4, 2}, {6, 2}
+                {0, 6}, {6, 8}, {0, 8}, {4, 6}, {5, 7}, {2, 6}, {1, 7}, {6, 6},
+                {6, 2}, {0, 0}, {6, 0}, {2, 2}, {1, 1}, {4, 2}, {5, 1}, {0, 2}
         };
 
-        for (int i = 0; i < pieces.size(); i++) {
+        for (int i = 0; i < pieces.size() && i < positions.length; i++) {
             GamePiece piece = pieces.get(i);
             int x = positions[i][0];
             int y = positions[i][1];
@@ -0,0 +1,55 @@
+package games.jungle.patterns.chainOfRespo;
+
+import framework.core.GameBoard;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.behavioral.chainOfRespo.MoveHandler;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.core.JungleCellType;
+import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.JungleBoard;
+
+public class CaptureRank extends MoveHandler {
+    @Override
+    public boolean move(Position from, Position to, GameBoard board) {
+        if(!(board instanceof JungleBoard jungleBoard)){
+            throw new IllegalArgumentException("Invalid board type");
+        }
+        int origin = board.cellIndex(from);
+        int target = board.cellIndex(to);
+        var attacker = board.pieceAt(origin);
+        var defender = board.pieceAt(target);
+
+        if (defender != null && !canCapture(jungleBoard, origin, target, attacker, defender)) {
+            return false;
+        }
+        return next == null || next.move(from, to, board);
+    }
+
+    static boolean canCapture(JungleBoard board, int from, int to, GamePiece attacker, GamePiece defender) {
+        if (attacker.getOwner() == defender.getOwner()) {
+            return false;
+        }
+        var attackerType = (JunglePieceType) attacker.getProps().type();
+        var defenderType = (JunglePieceType) defender.getProps().type();
+
+        if (attackerType == JunglePieceType.MOUSE && isWater(board, from) != isWater(board, to)) {
+            return false;
+        }
+        var trap = board.getCell(to);
+        if (trap.getType().equals(JungleCellType.TRAP)
+                && board.isHomeSquare(attacker, trap.getPosition().x(), trap.getPosition().y())) {
+            return true;
+        }
+        if (attackerType == JunglePieceType.MOUSE) {
+            return defenderType == JunglePieceType.MOUSE || defenderType == JunglePieceType.ELEPHANT;
+        }
+        if (attackerType == JunglePieceType.ELEPHANT && defenderType == JunglePieceType.MOUSE) {
+            return false;
+        }
+        return attackerType.getRank() >= defenderType.getRank();
+    }
+
+    private static boolean isWater(GameBoard board, int index) {
+        return board.getCell(index).getType().equals(JungleCellType.WATER);
+    }
+}
@@ -0,0 +1,87 @@
+package games.jungle.patterns.chainOfRespo;
+
+import framework.core.GameBoard;
+import framework.patterns.behavioral.chainOfRespo.Move;
+import framework.patterns.behavioral.chainOfRespo.MoveHandler;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.core.JungleCellType;
+import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.JungleBoard;
+
+/*
+    Avaliador único equivalente a uma cadeia de handlers da Selva.
+    A parte que só depende do terreno (passos, saltos e água) vira uma consulta
+    à tabela JungleBoard.staticReach; o resto (toca, captura e ratos no rio)
+    é checado em seguida, com uma única verificação do tipo do tabuleiro.
+ */
+public class CompiledJungleMove implements Move {
+    private final int reachProfile;
+    private final boolean territory;
+    private final boolean capture;
+    private final boolean leap;
+
+    private CompiledJungleMove(int reachProfile, boolean territory, boolean capture, boolean leap) {
+        this.reachProfile = reachProfile;
+        this.territory = territory;
+        this.capture = capture;
+        this.leap = leap;
+    }
+
+    // Devolve null quando a cadeia tem handlers desconhecidos ou uma ordem que não sabemos fundir
+    public static CompiledJungleMove compile(MoveHandler... chain) {
+        boolean territory = false, capture = false, dry = false, leap = false, range = false;
+        for (int i = 0; i < chain.length; i++) {
+            MoveHandler handler = chain[i];
+            if (handler instanceof TerritoryRestriction) territory = true;
+            else if (handler instanceof CaptureRank) capture = true;
+            else if (handler instanceof WaterBlock) dry = true;
+            else if (handler instanceof LeapOverRiver) leap = true;
+            else if (handler instanceof Range) range = true;
+            else return null;
+
+            boolean last = i == chain.length - 1;
+            if (handler instanceof Range && !last) return null;
+            if (handler instanceof LeapOverRiver && !last && !(chain[i + 1] instanceof Range && i + 1 == chain.length - 1)) {
+                return null;
+            }
+        }
+
+        int profile = (range ? JungleBoard.REACH_STEP : 0) | (leap ? JungleBoard.REACH_LEAP : 0) | (dry ? JungleBoard.REACH_DRY : 0);
+        return new CompiledJungleMove(profile, territory, capture, leap);
+    }
+
+    // Mesmas regras que o bitboard da Selva implementa para o tipo (captura, toca, água e saltos)
+    public boolean isStandard(JunglePieceType type) {
+        boolean leaps = type == JunglePieceType.LION || type == JunglePieceType.TIGER;
+        int profile = JungleBoard.REACH_STEP | (leaps ? JungleBoard.REACH_LEAP : 0)
+                | (type == JunglePieceType.MOUSE ? 0 : JungleBoard.REACH_DRY);
+        return territory && capture && leap == leaps && reachProfile == profile;
+    }
+
+    @Override
+    public boolean move(Position from, Position to, GameBoard board) {
+        if(!(board instanceof JungleBoard jungleBoard)){
+            throw new IllegalArgumentException("Invalid board type");
+        }
+        int origin = board.cellIndex(from);
+        int target = board.cellIndex(to);
+        GamePiece piece = board.pieceAt(origin);
+        if (piece == null && (territory || capture)) {
+            throw new IllegalArgumentException("No game piece found at the given position");
+        }
+        if (origin < 0 || target < 0 || (jungleBoard.staticReach(reachProfile, origin) & 1L << target) == 0) {
+            return false;
+        }
+        if (territory && board.getCell(target).getType().equals(JungleCellType.DEN)
+                && jungleBoard.isHomeSquare(piece, to.x(), to.y())) {
+            return false;
+        }
+        GamePiece defender = board.pieceAt(target);
+        if (capture && defender != null && !CaptureRank.canCapture(jungleBoard, origin, target, piece, defender)) {
+            return false;
+        }
+        return !leap || Math.abs(from.x() - to.x()) + Math.abs(from.y() - to.y()) == 1
+                || !jungleBoard.isLeapBlocked(origin, target);
+    }
+}
@@ -14,11 +14,9 @@ public class Range extends MoveHandler {
         int dx = Math.abs(from.x() - to.x());
         int dy = Math.abs(from.y() - to.y());
 
-        if ((dx + dy) == 1) {
-            return true;
-        } else if (next != null) {
-            return next.move(from, to, board);
+        if ((dx + dy) != 1) {
+            return false;
         }
-        return false;
+        return next == null || next.move(from, to, board);
     }
 }
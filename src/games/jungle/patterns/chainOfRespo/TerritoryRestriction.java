@@ -4,29 +4,27 @@ import framework.core.GameBoard;
 import framework.patterns.creational.prototype.Position;
 import framework.patterns.behavioral.chainOfRespo.MoveHandler;
 import games.jungle.core.JungleCellType;
+import games.jungle.patterns.JungleBoard;
 
 public class TerritoryRestriction extends MoveHandler {
 
     @Override
     public boolean move(Position from, Position to, GameBoard board) {
-        var gamePiece = board.getPieces().stream().filter(p -> p.getPosition().equals(from)).findFirst().orElseThrow(
-                () -> new IllegalArgumentException("No game piece found at the given position"));;
-        var Cell = board.getCell(to);
-
-
-        if (!(Cell.getType().equals(JungleCellType.DEN)) && isOwnDen(gamePiece.getInitialPosition(), Cell.getPosition())) {
-            return true;
-        } else if (next != null) {
-            return next.move(from, to, board);
+        if(!(board instanceof JungleBoard jungleBoard)){
+            throw new IllegalArgumentException("Invalid board type");
         }
-        return false;
-    }
+        var gamePiece = board.pieceAt(from.x(), from.y());
+        if (gamePiece == null) {
+            throw new IllegalArgumentException("No game piece found at the given position");
+        }
+        var cell = board.getCell(to.x(), to.y());
 
-    private boolean isOwnDen(Position gamePieceInitialPosition, Position denPosition) {
-        return (gamePieceInitialPosition.x() == denPosition.x() && gamePieceInitialPosition.y() == denPosition.y()) ||
-                (gamePieceInitialPosition.x() == denPosition.x() && gamePieceInitialPosition.y() + 1 == denPosition.y()) ||
-                (gamePieceInitialPosition.x() == denPosition.x() && gamePieceInitialPosition.y() - 1 == denPosition.y()) ||
-                (gamePieceInitialPosition.x() + 1 == denPosition.x() && gamePieceInitialPosition.y() == denPosition.y()) ||
-                (gamePieceInitialPosition.x() - 1 == denPosition.x() && gamePieceInitialPosition.y() == denPosition.y());
+        if (cell == null) {
+            return false;
+        }
+        if (cell.getType().equals(JungleCellType.DEN) && jungleBoard.isHomeSquare(gamePiece, to.x(), to.y())) {
+            return false;
+        }
+        return next == null || next.move(from, to, board);
     }
 }
@@ -8,11 +8,9 @@ import games.jungle.core.JungleCellType;
 public class WaterBlock extends MoveHandler {
     @Override
     public boolean move(Position from, Position to, GameBoard board) {
-        if (!board.getCell(to).getType().equals(JungleCellType.WATER)) {
-            return true;
-        } else if (next != null) {
-            return next.move(from, to, board);
+        if (board.getCell(to.x(), to.y()).getType().equals(JungleCellType.WATER)) {
+            return false;
         }
-        return false;
+        return next == null || next.move(from, to, board);
     }
 }
@@ -3,6 +3,7 @@ package games.jungle.patterns.factory;
 import framework.patterns.behavioral.chainOfRespo.MoveHandler;
 import framework.patterns.behavioral.chainOfRespo.Move;
 import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.chainOfRespo.CompiledJungleMove;
 
 public abstract class AbstractJungleMoveFactory {
     abstract public Move createMoveChain(JunglePieceType type);
@@ -12,4 +13,10 @@ public abstract class AbstractJungleMoveFactory {
         }
         return strategies[0];
     }
+
+    // Funde a cadeia em um único avaliador quando possível; senão, cai para a cadeia encadeada
+    protected Move compile(MoveHandler... strategies) {
+        Move compiled = CompiledJungleMove.compile(strategies);
+        return compiled != null ? compiled : chain(strategies);
+    }
 }
@@ -3,6 +3,7 @@ package games.jungle.patterns.factory;
 import framework.patterns.behavioral.chainOfRespo.MoveHandler;
 import framework.patterns.behavioral.chainOfRespo.Move;
 import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.chainOfRespo.CaptureRank;
 import games.jungle.patterns.chainOfRespo.LeapOverRiver;
 import games.jungle.patterns.chainOfRespo.Range;
 import games.jungle.patterns.chainOfRespo.TerritoryRestriction;
@@ -29,27 +30,39 @@ public class JungleMoveFactory extends AbstractJungleMoveFactory {
                 "1", TerritoryRestriction::new,
                 "2", WaterBlock::new,
                 "3", LeapOverRiver::new,
-                "4", Range::new
+                "4", Range::new,
+                "5", CaptureRank::new
         );
     }
 
+    /*
+        Cada handler veta o lance ou passa adiante; só o último decide o alcance.
+        Território: não entra na própria toca. Captura: não captura peça própria nem
+        de rank maior (rato captura elefante, fora da água), salvo na armadilha de
+        casa. Água: só o rato entra. Salto: leão e tigre cruzam o rio se não houver
+        rato no caminho. Alcance: uma casa ortogonal.
+        Casos conferidos em test/games/jungle/JungleRulesCheck.
+     */
     @Override
     public Move createMoveChain(JunglePieceType type) {
         return switch (type) {
-            case  MOUSE-> chain(
+            case  MOUSE-> compile(
                     moveStrategyMap.get("1").get(),
+                    moveStrategyMap.get("5").get(),
                     moveStrategyMap.get("4").get()
             );
 
-            case LION, TIGER -> chain(
+            case LION, TIGER -> compile(
                     moveStrategyMap.get("1").get(),
+                    moveStrategyMap.get("5").get(),
                     moveStrategyMap.get("2").get(),
                     moveStrategyMap.get("3").get(),
                     moveStrategyMap.get("4").get()
             );
 
-            case ELEPHANT, LEOPARD, WOLF, DOG, CAT -> chain(
+            case ELEPHANT, LEOPARD, WOLF, DOG, CAT -> compile(
                     moveStrategyMap.get("1").get(),
+                    moveStrategyMap.get("5").get(),
                     moveStrategyMap.get("2").get(),
                     moveStrategyMap.get("4").get()
             );
@@ -0,0 +1,150 @@
+package framework.patterns.behavioral.memento;
+
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.patterns.structural.facade.GameSession;
+import games.jungle.ai.JungleEvaluation;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/*
+    Confere o HistoryManager com janelas pequenas, para que quase toda operação
+    passe pelo arquivo em disco:
+    - push/undo/redo/peek/get/copy/export sorteados contra uma lista em memória;
+    - partidas aleatórias desfeitas até o início e refeitas até o fim, com a
+      chave de Zobrist e a vez de cada lance conferidas nos dois sentidos;
+    - close apaga o arquivo temporário.
+
+    Uso: java -cp out framework.patterns.behavioral.memento.HistoryCheck [rodadas] [semente]
+    Termina com código 1 se algo não bater.
+ */
+public class HistoryCheck {
+    private static long checks, failures;
+
+    public static void main(String[] args) throws IOException {
+        int rounds = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 7;
+        SplittableRandom random = new SplittableRandom(seed);
+
+        long spilled = 0;
+        for (int round = 0; round < rounds; round++) {
+            spilled += againstModel(random, 2 + random.nextInt(30));
+        }
+        check("nenhuma rodada gravou em disco", spilled > 0);
+
+        for (int game = 0; game < Math.max(1, rounds / 20); game++) {
+            undoAndRedo(random, 4 + random.nextInt(12));
+        }
+
+        long before = spillFiles();
+        HistoryManager history = new HistoryManager(4);
+        for (int i = 0; i < 40; i++) history.push(i);
+        check("sem arquivo com 40 entradas e janela 4", spillFiles() == before + 1);
+        history.close();
+        check("close não apagou o arquivo", spillFiles() == before);
+        check("close não esvaziou o histórico", history.size() == 0 && !history.canUndo());
+
+        System.out.printf("%d conferências, %d falhas%n", checks, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    private static long againstModel(SplittableRandom random, int capacity) {
+        List<Long> model = new ArrayList<>();
+        int cursor = 0;
+        long next = 0, spilled = 0;
+        try (HistoryManager history = new HistoryManager(capacity)) {
+            for (int op = 0; op < 300; op++) {
+                int kind = random.nextInt(10);
+                if (kind < 6) {
+                    model.subList(cursor, model.size()).clear();
+                    model.add(next);
+                    history.push(next++);
+                    cursor++;
+                } else if (kind < 8) {
+                    if (cursor > 0) {
+                        check("peek", history.peek() == model.get(cursor - 1));
+                        check("undo", history.undo() == model.get(--cursor));
+                    }
+                } else if (cursor < model.size()) {
+                    check("redo", history.redo() == model.get(cursor++));
+                }
+                check("size/cursor", history.size() == model.size() && history.cursor() == cursor);
+                check("canUndo/canRedo", history.canUndo() == cursor > 0 && history.canRedo() == cursor < model.size());
+
+                int size = model.size();
+                int from = random.nextInt(size + 1);
+                int count = random.nextInt(size - from + 1);
+                long[] copied = new long[count + 3];
+                history.copy(from, copied, 3, count);
+                for (int i = 0; i < count; i++) {
+                    check("copy", copied[3 + i] == model.get(from + i));
+                }
+                if (size > 0) {
+                    int index = random.nextInt(size);
+                    check("get", history.get(index) == model.get(index));
+                }
+                spilled = Math.max(spilled, history.spilled());
+            }
+            long[] exported = history.export();
+            check("export", exported.length == model.size());
+            for (int i = 0; i < exported.length && i < model.size(); i++) {
+                check("export", exported[i] == model.get(i));
+            }
+        }
+        return spilled;
+    }
+
+    private static void undoAndRedo(SplittableRandom random, int capacity) {
+        GameSession session = new GameSession(new JungleAbstractFactory(), new HistoryManager(capacity));
+        JungleEvaluation evaluation = new JungleEvaluation();
+        MoveBuffer moves = new MoveBuffer();
+        List<Long> keys = new ArrayList<>();
+        List<Integer> turns = new ArrayList<>();
+        keys.add(session.zobristKey());
+        turns.add(session.turn());
+        for (int ply = 0; ply < 200 && !evaluation.isGameOver(session); ply++) {
+            if (session.generateLegalMoves(session.currentPlayer(), moves) == 0) break;
+            int move = moves.get(random.nextInt(moves.size()));
+            GameBoard board = session.board();
+            session.move(board.getCell(move & 0xFFFF).getPosition(), board.getCell(move >>> 16).getPosition());
+            keys.add(session.zobristKey());
+            turns.add(session.turn());
+        }
+        int plies = keys.size() - 1;
+        check("partida não gravou em disco", plies <= capacity || session.history().spilled() > 0);
+        for (int ply = plies; ply > 0; ply--) {
+            session.undo();
+            check("undo da partida", session.zobristKey() == keys.get(ply - 1) && session.turn() == turns.get(ply - 1));
+        }
+        check("undo além do início", !session.history().canUndo());
+        for (int ply = 1; ply <= plies; ply++) {
+            session.redo();
+            check("redo da partida", session.zobristKey() == keys.get(ply) && session.turn() == turns.get(ply));
+        }
+        check("redo além do fim", !session.history().canRedo());
+        session.history().close();
+    }
+
+    private static long spillFiles() throws IOException {
+        try (Stream<Path> files = Files.list(Path.of(System.getProperty("java.io.tmpdir")))) {
+            return files.filter(p -> {
+                String name = p.getFileName().toString();
+                return name.startsWith("history") && name.endsWith(".bin");
+            }).count();
+        }
+    }
+
+    private static void check(String what, boolean ok) {
+        checks++;
+        if (!ok && ++failures <= 10) {
+            System.out.println("FALHA: " + what);
+        }
+    }
+}
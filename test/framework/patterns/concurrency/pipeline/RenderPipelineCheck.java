@@ -0,0 +1,172 @@
+package framework.patterns.concurrency.pipeline;
+
+import framework.core.Overlay;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.adapter.IGraphicEngineAdapter;
+import framework.patterns.structural.facade.GameSession;
+import framework.patterns.structural.proxy.IGameSession;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+
+/*
+    RenderPipeline com um motor falso que pode ser travado no meio de um quadro:
+    - com o motor travado e a fila cheia, os avisos são descartados sem bloquear
+      quem publica, e o quadro seguinte desenha o destaque mais recente;
+    - overlay calculado antes de um comando do mesmo lote não é desenhado;
+      overlay em exibição é apagado (overlay vazio) pelo comando seguinte;
+    - falha do motor é contada e o próximo quadro desenha normalmente;
+    - depois de close nada mais é desenhado.
+
+    Uso: java -cp out framework.patterns.concurrency.pipeline.RenderPipelineCheck
+    Termina com código 1 se algo não bater.
+ */
+public class RenderPipelineCheck {
+    private static long checks, failures;
+
+    // Registra o que o pipeline desenhou; render pode esperar em gate e falhar
+    private static final class Engine implements IGraphicEngineAdapter {
+        final List<Object> drawn = new ArrayList<>();
+        volatile CountDownLatch entered = new CountDownLatch(0);
+        volatile CountDownLatch gate = new CountDownLatch(0);
+        volatile boolean fail;
+
+        @Override
+        public void render(IGameSession session) {
+            entered.countDown();
+            try {
+                gate.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (fail) throw new IllegalStateException("motor falhou");
+            log("render");
+        }
+
+        @Override
+        public void highlighPosition(Position position) {
+            log(position);
+        }
+
+        @Override
+        public void renderOverlay(Overlay overlay) {
+            log(overlay);
+        }
+
+        synchronized void log(Object what) {
+            drawn.add(what);
+        }
+
+        synchronized List<Object> take() {
+            List<Object> taken = new ArrayList<>(drawn);
+            drawn.clear();
+            return taken;
+        }
+
+        // Trava o próximo render e espera o pipeline chegar nele
+        void stall(RenderPipeline pipeline) throws InterruptedException {
+            entered = new CountDownLatch(1);
+            gate = new CountDownLatch(1);
+            pipeline.update();
+            entered.await();
+        }
+
+        void release() {
+            gate.countDown();
+        }
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        IGameSession session = new GameSession(new JungleAbstractFactory());
+        dropping(session);
+        overlays(session);
+        renderFailure(session);
+
+        System.out.printf("%d conferências, %d falhas%n", checks, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    private static void dropping(IGameSession session) throws InterruptedException {
+        Engine engine = new Engine();
+        RenderPipeline pipeline = new RenderPipeline(session, engine, 4);
+        engine.stall(pipeline);
+        long start = System.nanoTime();
+        Position last = null;
+        for (int i = 0; i < 100; i++) {
+            last = new Position(i % 7, i % 9);
+            pipeline.update(last);
+        }
+        check("publicar bloqueou com o motor travado", System.nanoTime() - start < 500_000_000L);
+        check("nada descartado com a fila cheia", pipeline.getDroppedEvents() > 0);
+        engine.release();
+        check("não ficou ocioso", pipeline.awaitIdle(5000));
+        List<Object> drawn = engine.take();
+        check("destaque mais recente não desenhado", !drawn.isEmpty() && drawn.get(drawn.size() - 1) == last);
+        check("quadros não foram juntados", pipeline.getFramesRendered() < 20);
+    }
+
+    private static void overlays(IGameSession session) throws InterruptedException {
+        Engine engine = new Engine();
+        RenderPipeline pipeline = new RenderPipeline(session, engine);
+        Overlay shown = new Overlay(), stale = new Overlay(), fresh = new Overlay();
+
+        pipeline.overlay(shown);
+        pipeline.awaitIdle(5000);
+        check("overlay não desenhado", engine.take().contains(shown));
+
+        pipeline.update();
+        pipeline.awaitIdle(5000);
+        List<Object> drawn = engine.take();
+        check("comando não apagou o overlay", drawn.size() == 2 && drawn.get(1) instanceof Overlay cleared
+                && cleared != shown && cleared.getCellCount() == 0);
+
+        pipeline.update();
+        pipeline.awaitIdle(5000);
+        check("overlay apagado de novo", engine.take().equals(List.of("render")));
+
+        // overlay e, depois dele, um comando no mesmo lote: o overlay já não vale
+        engine.stall(pipeline);
+        pipeline.overlay(stale);
+        pipeline.update();
+        engine.release();
+        pipeline.awaitIdle(5000);
+        check("overlay anterior ao comando desenhado", !engine.take().contains(stale));
+
+        // comando e, depois dele, um overlay no mesmo lote: o overlay vale
+        engine.stall(pipeline);
+        pipeline.update();
+        pipeline.overlay(fresh);
+        engine.release();
+        pipeline.awaitIdle(5000);
+        check("overlay posterior ao comando não desenhado", engine.take().contains(fresh));
+    }
+
+    private static void renderFailure(IGameSession session) throws InterruptedException {
+        Engine engine = new Engine();
+        RenderPipeline pipeline = new RenderPipeline(session, engine);
+        engine.fail = true;
+        pipeline.update();
+        pipeline.awaitIdle(5000);
+        check("falha não contada", pipeline.getRenderFailures() == 1 && pipeline.getLastRenderFailure() != null);
+
+        engine.fail = false;
+        pipeline.update();
+        pipeline.awaitIdle(5000);
+        check("quadro depois da falha", engine.take().equals(List.of("render")));
+
+        pipeline.close();
+        long frames = pipeline.getFramesRendered();
+        pipeline.update();
+        pipeline.awaitIdle(5000);
+        check("desenhou depois de close", pipeline.getFramesRendered() == frames && engine.take().isEmpty());
+    }
+
+    private static void check(String what, boolean ok) {
+        checks++;
+        if (!ok && ++failures <= 10) {
+            System.out.println("FALHA: " + what);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package framework.persistence;
+
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.patterns.structural.facade.GameSession;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/*
+    Recuperação do MoveJournal depois de uma queda simulada nos arquivos:
+    - diário intacto, com fotos a cada poucos registros;
+    - registro final rasgado: é cortado e o diário continua gravando dali;
+    - diário mais curto que a posição da foto (registros perdidos): a foto é
+      apagada e o diário é reproduzido desde o início;
+    - foto corrompida: apagada, reprodução desde o início;
+    - cabeçalho inválido: vai para failures sem impedir as outras partidas.
+
+    A sessão recuperada precisa ter a chave de Zobrist e a vez que a partida
+    original tinha depois do mesmo número de registros.
+
+    Uso: java -cp out framework.persistence.JournalRecoveryCheck [semente]
+    Termina com código 1 se algo não bater.
+ */
+public class JournalRecoveryCheck {
+    private static final String GAME = "Jungle", PLAYER = "JunglePlayer1";
+    private static final int INTERVAL = 7;
+
+    private static long checks, failures;
+
+    // Estado da partida original depois de cada registro (índice 0 = antes do primeiro)
+    private record Played(List<Long> keys, List<Integer> turns) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 19;
+        SplittableRandom random = new SplittableRandom(seed);
+        JungleAbstractFactory factory = new JungleAbstractFactory();
+        Path directory = Files.createTempDirectory("journal-check");
+        try {
+            Map<String, Played> played = new HashMap<>();
+            try (MoveJournal journal = new MoveJournal(directory, INTERVAL)) {
+                for (String id : List.of("inteira", "rasgada", "perdida", "foto-corrompida", "cabecalho")) {
+                    played.put(id, play(journal, id, factory, random, 60 + random.nextInt(140)));
+                }
+                journal.sync().join();
+            }
+
+            append(directory.resolve("rasgada" + MoveJournal.JOURNAL), new byte[]{MoveJournal.MOVE, 0, 3});
+            Path lost = directory.resolve("perdida" + MoveJournal.SNAPSHOT);
+            check("sem foto para perder registros", Files.exists(lost));
+            long covered = ByteBuffer.wrap(Files.readAllBytes(lost)).getLong(5);
+            truncate(directory.resolve("perdida" + MoveJournal.JOURNAL), covered - 3L * MoveJournal.RECORD_BYTES);
+            Files.write(directory.resolve("foto-corrompida" + MoveJournal.SNAPSHOT), new byte[]{9, 9, 9});
+            try (FileChannel channel = FileChannel.open(directory.resolve("cabecalho" + MoveJournal.JOURNAL),
+                    StandardOpenOption.WRITE)) {
+                channel.write(ByteBuffer.allocate(4), 0);
+            }
+
+            List<RecoveryFailure> failed = new ArrayList<>();
+            Map<String, JournalRecording> recovered = recover(directory, failed);
+            check("cabeçalho inválido não foi relatado", failed.size() == 1 && failed.get(0).sessionId().equals("cabecalho"));
+            check("cabeçalho inválido foi recuperado", !recovered.containsKey("cabecalho"));
+            check("partidas recuperadas", recovered.size() == 4);
+
+            for (String id : List.of("inteira", "rasgada", "perdida", "foto-corrompida")) {
+                JournalRecording recording = recovered.get(id);
+                if (recording == null) continue;
+                int records = records(directory, id);
+                compare(id, recording, played.get(id), records, factory);
+            }
+            check("registro rasgado não foi cortado",
+                    records(directory, "rasgada") == played.get("rasgada").keys().size() - 1
+                            && (Files.size(directory.resolve("rasgada" + MoveJournal.JOURNAL)) - header()) % MoveJournal.RECORD_BYTES == 0);
+            check("perdida: registros", records(directory, "perdida") == (covered - header()) / MoveJournal.RECORD_BYTES - 3);
+            check("foto além do diário não foi apagada", !Files.exists(lost));
+            check("foto corrompida não foi apagada",
+                    !Files.exists(directory.resolve("foto-corrompida" + MoveJournal.SNAPSHOT)));
+
+            // Depois de cortar o registro rasgado, a partida continua no mesmo arquivo
+            GameSession resumed = new GameSession(factory);
+            recovered.get("rasgada").replay(resumed);
+            Played more;
+            try (MoveJournal journal = new MoveJournal(directory, INTERVAL)) {
+                SessionJournal session = journal.open("rasgada", GAME, PLAYER, resumed);
+                more = continueGame(session, resumed, random, 30);
+                journal.sync().join();
+            }
+            JournalRecording again = recover(directory, new ArrayList<>()).get("rasgada");
+            GameSession replayed = new GameSession(factory);
+            again.replay(replayed);
+            check("rasgada continuada", replayed.zobristKey() == more.keys().get(more.keys().size() - 1)
+                    && replayed.turn() == more.turns().get(more.turns().size() - 1));
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        System.out.printf("%d conferências, %d falhas%n", checks, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    private static Played play(MoveJournal journal, String id, JungleAbstractFactory factory,
+                               SplittableRandom random, int steps) {
+        GameSession session = new GameSession(factory);
+        return continueGame(journal.open(id, GAME, PLAYER, session), session, random, steps);
+    }
+
+    // Lances, passes, undos e redos sorteados, aplicados na sessão e no diário
+    private static Played continueGame(SessionJournal journal, GameSession session, SplittableRandom random, int steps) {
+        Played played = new Played(new ArrayList<>(), new ArrayList<>());
+        played.keys().add(session.zobristKey());
+        played.turns().add(session.turn());
+        MoveBuffer moves = new MoveBuffer();
+        for (int step = 0; step < steps; step++) {
+            int kind = random.nextInt(10);
+            if (kind == 0 && session.history().canUndo()) {
+                session.undo();
+                journal.undo();
+            } else if (kind == 1 && session.history().canRedo()) {
+                session.redo();
+                journal.redo();
+            } else if (kind == 2) {
+                session.passTurn();
+                journal.pass();
+            } else {
+                if (session.generateLegalMoves(session.currentPlayer(), moves) == 0) continue;
+                int i = random.nextInt(moves.size());
+                GameBoard board = session.board();
+                session.move(board.getCell(moves.from(i)).getPosition(), board.getCell(moves.to(i)).getPosition());
+                journal.move(moves.from(i), moves.to(i));
+            }
+            played.keys().add(session.zobristKey());
+            played.turns().add(session.turn());
+        }
+        return played;
+    }
+
+    private static Map<String, JournalRecording> recover(Path directory, List<RecoveryFailure> failed) {
+        Map<String, JournalRecording> recovered = new HashMap<>();
+        try (MoveJournal journal = new MoveJournal(directory, INTERVAL)) {
+            for (JournalRecording recording : journal.recordings(failed)) {
+                recovered.put(recording.getSessionId(), recording);
+            }
+        }
+        return recovered;
+    }
+
+    private static void compare(String id, JournalRecording recording, Played played, int records,
+                                JungleAbstractFactory factory) {
+        GameSession session = new GameSession(factory);
+        try {
+            recording.replay(session);
+        } catch (RuntimeException e) {
+            check(id + ": replay falhou com " + e, false);
+            return;
+        }
+        check(id + ": chave e vez depois de " + records + " registros",
+                session.zobristKey() == played.keys().get(records) && session.turn() == played.turns().get(records));
+    }
+
+    // Registros completos no diário, contados desde o cabeçalho
+    private static int records(Path directory, String id) throws IOException {
+        return (int) ((Files.size(directory.resolve(id + MoveJournal.JOURNAL)) - header()) / MoveJournal.RECORD_BYTES);
+    }
+
+    private static int header() {
+        return 4 + 1 + 2 + GAME.length() + 2 + PLAYER.length();
+    }
+
+    private static void append(Path file, byte[] bytes) throws IOException {
+        Files.write(file, bytes, StandardOpenOption.APPEND);
+    }
+
+    private static void truncate(Path file, long size) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(size);
+        }
+    }
+
+    private static void check(String what, boolean ok) {
+        checks++;
+        if (!ok && ++failures <= 10) {
+            System.out.println("FALHA: " + what);
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package framework.persistence;
+
+import framework.core.GameBoard;
+import framework.core.GameRegistry;
+import framework.core.MoveBuffer;
+import framework.patterns.structural.facade.GameSession;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.stream.Stream;
+
+/*
+    GameReplayer sobre um diretório com diários válidos (um deles maior que o
+    buffer de leitura) e diários com defeito. Cada defeito precisa virar uma
+    falha do arquivo certo, no registro certo, sem afetar os outros arquivos;
+    games e plies precisam bater com o que foi gravado. Roda com 1 e com 3
+    threads e compara os dois relatórios.
+
+    Uso: java -cp out framework.persistence.ReplayCheck [semente]
+    Termina com código 1 se algo não bater.
+ */
+public class ReplayCheck {
+    private static final String GAME = "Jungle", PLAYER = "JunglePlayer1";
+
+    private static long checks, failures;
+
+    private record Expected(long record, String reason) {
+    }
+
+    public static void main(String[] args) throws IOException {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : 21;
+        SplittableRandom random = new SplittableRandom(seed);
+        // Sem META-INF no classpath o registro vem vazio
+        if (!GameRegistry.ids().contains(GAME)) {
+            GameRegistry.register(GAME, new JungleAbstractFactory());
+        }
+
+        Path directory = Files.createTempDirectory("replay-check");
+        try {
+            long games = 0, plies = 0;
+            for (int i = 0; i < 12; i++) {
+                byte[] records = play(random, 20 + random.nextInt(300));
+                write(directory, "valida-" + i, GAME, records);
+                games++;
+                plies += records.length / MoveJournal.RECORD_BYTES;
+            }
+            byte[] longGame = play(random, 20_000);
+            check("partida longa não passa do buffer", longGame.length > 64 * 1024);
+            write(directory, "longa", GAME, longGame);
+            games++;
+            plies += longGame.length / MoveJournal.RECORD_BYTES;
+
+            Map<String, Expected> broken = new HashMap<>();
+            byte[] prefix = play(random, 40);
+            int valid = prefix.length / MoveJournal.RECORD_BYTES;
+
+            write(directory, "ilegal", GAME, concat(prefix, record(MoveJournal.MOVE, 10, 10)));
+            broken.put("ilegal", new Expected(valid + 1, "Lance ilegal"));
+            write(directory, "desconhecido", GAME, concat(prefix, record((byte) 9, 0, 0)));
+            broken.put("desconhecido", new Expected(valid + 1, "Registro desconhecido"));
+            write(directory, "rasgada", GAME, concat(prefix, new byte[]{MoveJournal.MOVE, 0}));
+            broken.put("rasgada", new Expected(valid + 1, "Registro incompleto"));
+            write(directory, "jogo", "Xadrez", prefix);
+            broken.put("jogo", new Expected(0, "Game not found"));
+            Files.write(directory.resolve("cabecalho" + MoveJournal.JOURNAL), new byte[]{1, 2, 3});
+            broken.put("cabecalho", new Expected(0, "Cabeçalho inválido"));
+            games += broken.size();
+            plies += 3L * valid;
+
+            ReplayReport single = new GameReplayer(1).replay(directory);
+            ReplayReport parallel = new GameReplayer(3).replay(directory);
+            for (ReplayReport report : new ReplayReport[]{single, parallel}) {
+                check("games", report.games() == games);
+                check("plies " + report.plies() + " != " + plies, report.plies() == plies);
+                check("uma falha por arquivo com defeito", report.failures().size() == broken.size());
+                for (ReplayReport.Failure failure : report.failures()) {
+                    String name = failure.file().getFileName().toString();
+                    Expected expected = broken.get(name.substring(0, name.length() - MoveJournal.JOURNAL.length()));
+                    check("falha em arquivo válido: " + name, expected != null);
+                    if (expected == null) continue;
+                    check(name + ": registro " + failure.record(), failure.record() == expected.record());
+                    check(name + ": " + failure.reason(), failure.reason().startsWith(expected.reason()));
+                }
+            }
+        } finally {
+            try (Stream<Path> files = Files.walk(directory)) {
+                for (Path file : files.sorted(Comparator.reverseOrder()).toList()) {
+                    Files.deleteIfExists(file);
+                }
+            }
+        }
+
+        System.out.printf("%d conferências, %d falhas%n", checks, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    // Registros de uma partida aleatória válida: lances, passes, undos e redos
+    private static byte[] play(SplittableRandom random, int steps) {
+        GameSession session = new GameSession(new JungleAbstractFactory());
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        MoveBuffer moves = new MoveBuffer();
+        for (int step = 0; step < steps; step++) {
+            int kind = random.nextInt(10);
+            if (kind == 0 && session.history().canUndo()) {
+                session.undo();
+                out.writeBytes(record(MoveJournal.UNDO, 0, 0));
+            } else if (kind == 1 && session.history().canRedo()) {
+                session.redo();
+                out.writeBytes(record(MoveJournal.REDO, 0, 0));
+            } else if (kind == 2 || session.generateLegalMoves(session.currentPlayer(), moves) == 0) {
+                session.passTurn();
+                out.writeBytes(record(MoveJournal.PASS, 0, 0));
+            } else {
+                int i = random.nextInt(moves.size());
+                GameBoard board = session.board();
+                session.move(board.getCell(moves.from(i)).getPosition(), board.getCell(moves.to(i)).getPosition());
+                out.writeBytes(record(MoveJournal.MOVE, moves.from(i), moves.to(i)));
+            }
+        }
+        session.history().close();
+        return out.toByteArray();
+    }
+
+    private static byte[] record(byte type, int from, int to) {
+        return ByteBuffer.allocate(MoveJournal.RECORD_BYTES).put(type).putShort((short) from).putShort((short) to).array();
+    }
+
+    // Mesmo cabeçalho que MoveJournal.open grava
+    private static void write(Path directory, String id, String gameId, byte[] records) throws IOException {
+        byte[] game = gameId.getBytes(StandardCharsets.UTF_8);
+        byte[] player = PLAYER.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer file = ByteBuffer.allocate(4 + 1 + 2 + game.length + 2 + player.length + records.length);
+        file.putInt(MoveJournal.MAGIC).put(MoveJournal.VERSION)
+                .putShort((short) game.length).put(game)
+                .putShort((short) player.length).put(player)
+                .put(records);
+        Files.write(directory.resolve(id + MoveJournal.JOURNAL), file.array());
+    }
+
+    private static byte[] concat(byte[] a, byte[] b) {
+        byte[] joined = new byte[a.length + b.length];
+        System.arraycopy(a, 0, joined, 0, a.length);
+        System.arraycopy(b, 0, joined, a.length, b.length);
+        return joined;
+    }
+
+    private static void check(String what, boolean ok) {
+        checks++;
+        if (!ok && ++failures <= 10) {
+            System.out.println("FALHA: " + what);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package framework.persistence;
+
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.patterns.behavioral.memento.HistoryManager;
+import framework.patterns.structural.facade.GameSession;
+import games.jungle.ai.JungleEvaluation;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+
+import java.nio.BufferOverflowException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+/*
+    Ida e volta do SessionCodec em partidas aleatórias com lances desfeitos e
+    histórico em disco: a sessão decodificada (reaproveitando uma sessão já
+    usada, como faz o SessionPool) precisa ter as mesmas casas por slot, a mesma
+    vez, a mesma chave de Zobrist e o mesmo trecho de histórico, e desfazer e
+    refazer nela precisa passar pelas mesmas posições da original.
+    capture + encode(Capture) precisa gerar os mesmos bytes de encode, e
+    buffer curto ou versão desconhecida precisam ser recusados.
+
+    Uso: java -cp out framework.persistence.SessionCodecCheck [partidas] [semente]
+    Termina com código 1 se algo não bater.
+ */
+public class SessionCodecCheck {
+    private static long checks, failures;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 60;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 11;
+        SplittableRandom random = new SplittableRandom(seed);
+        JungleAbstractFactory factory = new JungleAbstractFactory();
+        SessionCodec codec = new SessionCodec();
+        GameSession target = new GameSession(factory);
+
+        for (int game = 0; game < games; game++) {
+            GameSession session = play(factory, random);
+            int tail = random.nextInt(4) == 0 ? 1 + random.nextInt(20) : Integer.MAX_VALUE;
+            ByteBuffer buffer = ByteBuffer.allocate(SessionCodec.size("Jungle", session, tail));
+            codec.encode("Jungle", session, tail, buffer);
+            check("encode não preencheu o tamanho calculado", !buffer.hasRemaining());
+            buffer.flip();
+
+            SessionCodec.Capture capture = codec.capture("Jungle", session, tail);
+            ByteBuffer captured = ByteBuffer.allocate(SessionCodec.size(capture));
+            SessionCodec.encode(capture, captured);
+            captured.flip();
+            check("capture gerou bytes diferentes de encode", captured.equals(buffer));
+
+            check("gameId", SessionCodec.gameId(buffer).equals("Jungle"));
+            codec.decode(buffer.duplicate(), target);
+            compare(session, target, tail);
+        }
+
+        GameSession session = play(factory, random);
+        try {
+            codec.encode("Jungle", session, Integer.MAX_VALUE,
+                    ByteBuffer.allocate(SessionCodec.size("Jungle", session, Integer.MAX_VALUE) - 1));
+            check("buffer curto aceito", false);
+        } catch (BufferOverflowException expected) {
+            check("buffer curto", true);
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(SessionCodec.size("Jungle", session, 0));
+        codec.encode("Jungle", session, 0, buffer);
+        buffer.put(0, (byte) (SessionCodec.VERSION + 1)).flip();
+        try {
+            codec.decode(buffer, target);
+            check("versão desconhecida aceita", false);
+        } catch (IllegalArgumentException expected) {
+            check("versão desconhecida", true);
+        }
+
+        System.out.printf("%d partidas, %d conferências, %d falhas%n", games, checks, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    // Partida aleatória com janela pequena (histórico em disco) e alguns lances desfeitos no fim
+    private static GameSession play(JungleAbstractFactory factory, SplittableRandom random) {
+        GameSession session = new GameSession(factory, new HistoryManager(4 + random.nextInt(16)));
+        JungleEvaluation evaluation = new JungleEvaluation();
+        MoveBuffer moves = new MoveBuffer();
+        int plies = random.nextInt(300);
+        for (int ply = 0; ply < plies && !evaluation.isGameOver(session); ply++) {
+            if (session.generateLegalMoves(session.currentPlayer(), moves) == 0) break;
+            int move = moves.get(random.nextInt(moves.size()));
+            GameBoard board = session.board();
+            session.move(board.getCell(move & 0xFFFF).getPosition(), board.getCell(move >>> 16).getPosition());
+        }
+        int undos = (int) Math.min(session.history().cursor(), random.nextInt(30));
+        for (int i = 0; i < undos; i++) {
+            session.undo();
+        }
+        return session;
+    }
+
+    private static void compare(GameSession original, GameSession decoded, int tail) {
+        GameBoard a = original.board(), b = decoded.board();
+        for (int slot = 0; slot < a.getPieces().size(); slot++) {
+            check("casa do slot " + slot,
+                    a.cellIndex(a.pieceInSlot(slot).getPosition()) == b.cellIndex(b.pieceInSlot(slot).getPosition()));
+        }
+        check("vez", original.turn() == decoded.turn());
+        check("chave", original.zobristKey() == decoded.zobristKey());
+
+        HistoryManager from = original.history(), to = decoded.history();
+        long undoable = Math.min(tail, from.cursor());
+        long redoable = Math.min(tail, from.size() - from.cursor());
+        long[] expected = new long[(int) (undoable + redoable)];
+        from.copy(from.cursor() - undoable, expected, 0, expected.length);
+        check("histórico", Arrays.equals(expected, to.export()) && to.cursor() == undoable);
+
+        // Desfaz e refaz nas duas, lado a lado, até o limite do trecho gravado
+        while (to.canUndo()) {
+            original.undo();
+            decoded.undo();
+            check("undo depois de decodificar", original.zobristKey() == decoded.zobristKey());
+        }
+        while (to.canRedo()) {
+            original.redo();
+            decoded.redo();
+            check("redo depois de decodificar", original.zobristKey() == decoded.zobristKey());
+        }
+        original.history().close();
+    }
+
+    private static void check(String what, boolean ok) {
+        checks++;
+        if (!ok && ++failures <= 10) {
+            System.out.println("FALHA: " + what);
+        }
+    }
+}
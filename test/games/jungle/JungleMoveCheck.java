@@ -0,0 +1,139 @@
+package games.jungle;
+
+import framework.core.GameBoard;
+import framework.core.MoveBuffer;
+import framework.patterns.behavioral.chainOfRespo.Move;
+import framework.patterns.behavioral.chainOfRespo.MoveHandler;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.facade.GameSession;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.ai.JungleEvaluation;
+import games.jungle.core.JungleBitboard;
+import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+import games.jungle.patterns.chainOfRespo.CaptureRank;
+import games.jungle.patterns.chainOfRespo.CompiledJungleMove;
+import games.jungle.patterns.chainOfRespo.LeapOverRiver;
+import games.jungle.patterns.chainOfRespo.Range;
+import games.jungle.patterns.chainOfRespo.TerritoryRestriction;
+import games.jungle.patterns.chainOfRespo.WaterBlock;
+
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.SplittableRandom;
+
+/*
+    Confere, em posições de partidas aleatórias, que o avaliador fundido de cada
+    peça (CompiledJungleMove) responde igual à cadeia de handlers encadeada, para
+    todo par (peça, casa de destino), e que os destinos gerados pelo bitboard do
+    JungleBoard são exatamente os que a cadeia aceita. Também compara os lances
+    de JungleBitboard.generateMoves com os de GameSession.generateLegalMoves.
+
+    Uso: java -cp out games.jungle.JungleMoveCheck [partidas] [semente]
+    Termina com código 1 se encontrar alguma diferença.
+ */
+public class JungleMoveCheck {
+    private static final int MAX_PLIES = 300;
+
+    public static void main(String[] args) {
+        int games = args.length > 0 ? Integer.parseInt(args[0]) : 200;
+        long seed = args.length > 1 ? Long.parseLong(args[1]) : 42;
+
+        Map<JunglePieceType, Move> chains = new EnumMap<>(JunglePieceType.class);
+        for (JunglePieceType type : JunglePieceType.values()) {
+            chains.put(type, chain(type));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        JungleAbstractFactory factory = new JungleAbstractFactory();
+        JungleEvaluation evaluation = new JungleEvaluation();
+        MoveBuffer moves = new MoveBuffer();
+        MoveBuffer targets = new MoveBuffer();
+        MoveBuffer packed = new MoveBuffer();
+        long pairs = 0, mismatches = 0, generated = 0;
+        for (int game = 0; game < games; game++) {
+            GameSession session = new GameSession(factory);
+            for (int ply = 0; ply < MAX_PLIES && !evaluation.isGameOver(session); ply++) {
+                GameBoard board = session.board();
+                for (int slot = 0; slot < board.getPieces().size(); slot++) {
+                    GamePiece piece = board.pieceInSlot(slot);
+                    Position from = piece.getPosition();
+                    if (from == null) continue;
+                    Move compiled = piece.getProps().moveChain();
+                    if (!(compiled instanceof CompiledJungleMove)) {
+                        throw new IllegalStateException("Cadeia não foi fundida: " + piece.getProps().type().getName());
+                    }
+                    Move chain = chains.get((JunglePieceType) piece.getProps().type());
+                    long accepted = 0;
+                    for (int to = 0; to < board.getCellCount(); to++) {
+                        Position target = board.getCell(to).getPosition();
+                        if (target.equals(from)) continue;
+                        pairs++;
+                        boolean legal = chain.move(from, target, board);
+                        if (legal) accepted |= 1L << to;
+                        if (compiled.move(from, target, board) != legal) {
+                            report(++mismatches, "avaliador fundido", piece, from, target);
+                        }
+                    }
+
+                    targets.clear();
+                    board.addLegalTargets(piece, board.cellIndex(from), targets);
+                    long produced = 0;
+                    for (int i = 0; i < targets.size(); i++) {
+                        produced |= 1L << targets.to(i);
+                    }
+                    generated += targets.size();
+                    if (produced != accepted || Long.bitCount(produced) != targets.size()) {
+                        report(++mismatches, "bitboard", piece, from, null);
+                    }
+                }
+                int count = session.generateLegalMoves(session.currentPlayer(), moves);
+                packed.clear();
+                JungleBitboard.from(board, session.players()).generateMoves(session.turn(), packed);
+                if (!sameMoves(moves, packed) && ++mismatches <= 10) {
+                    System.out.println("Diferença (generateMoves do bitboard): partida " + game + ", lance " + ply);
+                }
+                if (count == 0) break;
+                int move = moves.get(random.nextInt(moves.size()));
+                session.makeMove(move & 0xFFFF, move >>> 16);
+            }
+        }
+        System.out.printf("%d partidas, %d pares (peça, destino), %d destinos gerados, %d diferenças%n",
+                games, pairs, generated, mismatches);
+        if (mismatches > 0) System.exit(1);
+    }
+
+    // Mesmos lances no mesmo formato, em qualquer ordem
+    private static boolean sameMoves(MoveBuffer a, MoveBuffer b) {
+        if (a.size() != b.size()) return false;
+        int[] left = new int[a.size()], right = new int[b.size()];
+        for (int i = 0; i < left.length; i++) {
+            left[i] = a.get(i);
+            right[i] = b.get(i);
+        }
+        Arrays.sort(left);
+        Arrays.sort(right);
+        return Arrays.equals(left, right);
+    }
+
+    private static void report(long count, String source, GamePiece piece, Position from, Position target) {
+        if (count <= 10) {
+            System.out.println("Diferença (" + source + "): " + piece.getProps().type().getName() + " " + from
+                    + (target == null ? "" : " -> " + target));
+        }
+    }
+
+    // Mesma ordem de JungleMoveFactory, mas encadeada, sem fundir
+    private static Move chain(JunglePieceType type) {
+        MoveHandler[] handlers = switch (type) {
+            case MOUSE -> new MoveHandler[]{new TerritoryRestriction(), new CaptureRank(), new Range()};
+            case LION, TIGER -> new MoveHandler[]{new TerritoryRestriction(), new CaptureRank(), new WaterBlock(), new LeapOverRiver(), new Range()};
+            default -> new MoveHandler[]{new TerritoryRestriction(), new CaptureRank(), new WaterBlock(), new Range()};
+        };
+        for (int i = 0; i < handlers.length - 1; i++) {
+            handlers[i].setNext(handlers[i + 1]);
+        }
+        return handlers[0];
+    }
+}
@@ -0,0 +1,133 @@
+package games.jungle;
+
+import framework.core.GameBoard;
+import framework.patterns.behavioral.chainOfRespo.Move;
+import framework.patterns.behavioral.chainOfRespo.MoveHandler;
+import framework.patterns.creational.prototype.Position;
+import framework.patterns.structural.facade.GameSession;
+import framework.patterns.structural.flyweight.GamePiece;
+import games.jungle.core.JungleCellType;
+import games.jungle.core.JunglePieceType;
+import games.jungle.patterns.abstractFactory.JungleAbstractFactory;
+import games.jungle.patterns.chainOfRespo.LeapOverRiver;
+
+import java.util.Arrays;
+
+/*
+    Regras de movimento do Jungle em posições montadas à mão, cada uma conferida
+    com a cadeia atual (handlers que vetam) e com a cadeia de antes da geração de
+    lances legais (handlers que aceitavam cedo, reproduzidos aqui como Old*).
+
+    Na cadeia antiga qualquer handler que aceitasse encerrava a cadeia: WaterBlock
+    aceitava toda casa que não fosse água, então peças andavam várias casas,
+    entravam na água, capturavam peças maiores ou do mesmo dono e entravam na
+    própria toca. Cada caso registra o que as duas cadeias respondem.
+
+    Slots: 0-7 do JunglePlayer1 (embaixo, toca em (3,8)) e 8-15 do JunglePlayer2
+    (em cima, toca em (3,0)), na ordem de JunglePieceType.
+
+    Uso: java -cp out games.jungle.JungleRulesCheck
+    Termina com código 1 se algum caso não bater.
+ */
+public class JungleRulesCheck {
+    private static final int ELEPHANT = 0, LION = 1, TIGER = 2, DOG = 4, WOLF = 5, CAT = 6, MOUSE = 7;
+    private static final int P2 = 8;
+
+    private static int failures, changed, cases;
+
+    public static void main(String[] args) {
+        check("um passo ortogonal", ELEPHANT, 3, 6, 3, 5, true, true);
+        check("dois passos", ELEPHANT, 3, 6, 3, 4, false, true);
+        check("elefante na água", ELEPHANT, 0, 4, 1, 4, false, true);
+        check("rato na água", MOUSE, 0, 4, 1, 4, true, true);
+        check("leão salta o rio", LION, 0, 4, 3, 4, true, true);
+        check("salto bloqueado por rato na água", LION, 0, 4, 3, 4, false, true, P2 + MOUSE, 1, 4);
+        check("tigre salta o rio na vertical", TIGER, 1, 6, 1, 2, true, true);
+        check("gato não captura cão", CAT, 3, 4, 3, 3, false, true, P2 + DOG, 3, 3);
+        check("cão captura gato", DOG, 3, 4, 3, 3, true, true, P2 + CAT, 3, 3);
+        check("rato captura elefante", MOUSE, 0, 4, 0, 3, true, true, P2 + ELEPHANT, 0, 3);
+        check("elefante não captura rato", ELEPHANT, 0, 4, 0, 3, false, true, P2 + MOUSE, 0, 3);
+        check("rato na água não captura em terra", MOUSE, 1, 4, 0, 4, false, true, P2 + ELEPHANT, 0, 4);
+        check("gato captura leão na armadilha própria", CAT, 2, 7, 3, 7, true, true, P2 + LION, 3, 7);
+        check("gato não captura leão fora da armadilha", CAT, 3, 6, 3, 5, false, true, P2 + LION, 3, 5);
+        check("própria toca", DOG, 2, 8, 3, 8, false, true);
+        check("toca do adversário", DOG, 2, 0, 3, 0, true, true);
+        check("peça do mesmo dono", CAT, 3, 4, 3, 3, false, true, WOLF, 3, 3);
+
+        System.out.printf("%d casos, %d mudaram em relação à cadeia antiga, %d falhas%n", cases, changed, failures);
+        if (failures > 0) System.exit(1);
+    }
+
+    // others: trios (slot, x, y) de outras peças no tabuleiro
+    private static void check(String name, int slot, int x, int y, int toX, int toY,
+                              boolean expected, boolean expectedOld, int... others) {
+        GameSession session = new GameSession(new JungleAbstractFactory());
+        GameBoard board = session.board();
+        int[] squares = new int[board.getPieces().size()];
+        Arrays.fill(squares, -1);
+        squares[slot] = board.cellIndex(x, y);
+        for (int i = 0; i < others.length; i += 3) {
+            squares[others[i]] = board.cellIndex(others[i + 1], others[i + 2]);
+        }
+        session.load(0, squares);
+
+        GamePiece piece = board.pieceInSlot(slot);
+        Position from = piece.getPosition();
+        Position to = board.getCell(toX, toY).getPosition();
+        boolean current = piece.canMove(to, board);
+        boolean old = oldChain((JunglePieceType) piece.getProps().type()).move(from, to, board);
+
+        cases++;
+        if (current != old) changed++;
+        if (current != expected || old != expectedOld) {
+            failures++;
+            System.out.printf("FALHA %s: atual %b (esperado %b), antiga %b (esperado %b)%n",
+                    name, current, expected, old, expectedOld);
+        }
+    }
+
+    // Mesma ordem da JungleMoveFactory antes da CaptureRank
+    private static Move oldChain(JunglePieceType type) {
+        MoveHandler[] handlers = switch (type) {
+            case MOUSE -> new MoveHandler[]{new OldTerritory(), new OldRange()};
+            case LION, TIGER -> new MoveHandler[]{new OldTerritory(), new OldWaterBlock(), new LeapOverRiver(), new OldRange()};
+            default -> new MoveHandler[]{new OldTerritory(), new OldWaterBlock(), new OldRange()};
+        };
+        for (int i = 0; i < handlers.length - 1; i++) {
+            handlers[i].setNext(handlers[i + 1]);
+        }
+        return handlers[0];
+    }
+
+    private static final class OldTerritory extends MoveHandler {
+        @Override
+        public boolean move(Position from, Position to, GameBoard board) {
+            Position initial = board.pieceAt(from.x(), from.y()).getInitialPosition();
+            boolean near = Math.abs(initial.x() - to.x()) + Math.abs(initial.y() - to.y()) <= 1;
+            if (!board.getCell(to.x(), to.y()).getType().equals(JungleCellType.DEN) && near) {
+                return true;
+            }
+            return next != null && next.move(from, to, board);
+        }
+    }
+
+    private static final class OldWaterBlock extends MoveHandler {
+        @Override
+        public boolean move(Position from, Position to, GameBoard board) {
+            if (!board.getCell(to.x(), to.y()).getType().equals(JungleCellType.WATER)) {
+                return true;
+            }
+            return next != null && next.move(from, to, board);
+        }
+    }
+
+    private static final class OldRange extends MoveHandler {
+        @Override
+        public boolean move(Position from, Position to, GameBoard board) {
+            if (Math.abs(from.x() - to.x()) + Math.abs(from.y() - to.y()) == 1) {
+                return true;
+            }
+            return next != null && next.move(from, to, board);
+        }
+    }
+}